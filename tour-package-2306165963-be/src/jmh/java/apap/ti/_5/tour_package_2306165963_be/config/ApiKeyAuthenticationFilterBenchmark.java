@@ -0,0 +1,54 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ApiKeyAuthenticationFilterBenchmark {
+
+    private static final String API_KEY = "bench-loyalty-api-key";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    ApiKeyAuthenticationFilter filter;
+    MockHttpServletRequest protectedRequest;
+    MockHttpServletRequest missingKeyRequest;
+    MockHttpServletRequest unprotectedRequest;
+    MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        filter = new ApiKeyAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "validApiKey", API_KEY);
+
+        protectedRequest = new MockHttpServletRequest("POST", "/api/add-points/batch");
+        protectedRequest.addHeader("X-API-KEY", API_KEY);
+        missingKeyRequest = new MockHttpServletRequest("POST", "/api/use-coupon");
+        unprotectedRequest = new MockHttpServletRequest("GET", "/api/packages/PACK-user-123-001");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void protectedPath_validKey() throws Exception {
+        filter.doFilter(protectedRequest, response, NO_OP_CHAIN);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse protectedPath_missingKey() throws Exception {
+        // Response baru karena filter menulis body 401
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(missingKeyRequest, rejected, NO_OP_CHAIN);
+        return rejected;
+    }
+
+    @Benchmark
+    public void unprotectedPath() throws Exception {
+        filter.doFilter(unprotectedRequest, response, NO_OP_CHAIN);
+    }
+}
@@ -0,0 +1,35 @@
+package apap.ti._5.tour_package_2306165963_be.dto;
+
+import apap.ti._5.tour_package_2306165963_be.dto.packagedto.ReadPackageDto;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.util.SyntheticData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DtoMapperBenchmark {
+
+    // Total OrderedQuantity di dalam tree Package -> Plan -> OrderedQuantity
+    @Param({SyntheticData.SMALL, SyntheticData.MEDIUM, SyntheticData.LARGE})
+    int orderedQuantities;
+
+    @Param({"10", "1000"})
+    int perPlan;
+
+    DtoMapper mapper;
+    Package pkg;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        mapper = new DtoMapper();
+        pkg = SyntheticData.packageTree("PACK-bench-001", orderedQuantities, perPlan);
+    }
+
+    @Benchmark
+    public ReadPackageDto toReadDto() {
+        return mapper.toReadDto(pkg);
+    }
+}
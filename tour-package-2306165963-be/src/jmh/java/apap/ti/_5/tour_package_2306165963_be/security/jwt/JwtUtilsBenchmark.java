@@ -0,0 +1,89 @@
+package apap.ti._5.tour_package_2306165963_be.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "SecretKeyForFlightAndLoyaltyServiceThatMustBeLongEnoughToSatisfyHS256AlgorithmRequirement";
+    private static final int TOKENS = 4096;
+
+    // Cache cukup besar: setelah warmup semua token hit
+    JwtUtils cachedJwtUtils;
+    // Cache 1 entry dengan token bergiliran: setiap call verifikasi signature penuh + eviction
+    JwtUtils uncachedJwtUtils;
+    String[] tokens;
+    String invalidToken;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance() {
+            next = (next + 1) % TOKENS;
+            return next;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cachedJwtUtils = jwtUtils(TOKENS * 2);
+        uncachedJwtUtils = jwtUtils(1);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = token("user-" + i, i % 2 == 0 ? "Customer" : "TourPackageVendor");
+        }
+        // Signature diganti: lolos parsing struktur, gagal di verifikasi
+        invalidToken = tokens[0].substring(0, tokens[0].lastIndexOf('.') + 1) + "invalidsignature";
+    }
+
+    @Benchmark
+    public JwtPrincipal resolvePrincipal_cacheHit(Cursor cursor) {
+        return cachedJwtUtils.resolvePrincipal(tokens[cursor.advance()]);
+    }
+
+    @Benchmark
+    public JwtPrincipal resolvePrincipal_cacheMiss(Cursor cursor) {
+        return uncachedJwtUtils.resolvePrincipal(tokens[cursor.advance()]);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken_cacheHit(Cursor cursor) {
+        return cachedJwtUtils.validateJwtToken(tokens[cursor.advance()]);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken_invalidSignature() {
+        return uncachedJwtUtils.validateJwtToken(invalidToken);
+    }
+
+    // Helper methods
+    private static JwtUtils jwtUtils(int cacheSize) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.setField(jwtUtils, "jwtCacheSize", cacheSize);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    private static String token(String id, String role) {
+        return Jwts.builder()
+                .subject(id + "-name")
+                .claim("id", id)
+                .claim("role", role)
+                .claim("email", id + "@mail.com")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 86400000L))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+    }
+}
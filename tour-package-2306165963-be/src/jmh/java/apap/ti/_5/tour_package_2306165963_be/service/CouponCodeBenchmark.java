@@ -0,0 +1,66 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.Coupon;
+import apap.ti._5.tour_package_2306165963_be.util.SyntheticData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CouponCodeBenchmark {
+
+    // Jumlah customer berbeda, menentukan jumlah key sequence yang aktif
+    @Param({SyntheticData.SMALL, SyntheticData.MEDIUM, SyntheticData.LARGE})
+    int customers;
+
+    LoyaltyServiceImpl loyaltyService;
+    Coupon[] coupons;
+    UUID[] customerIds;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Sequence in-memory: yang diukur pembentukan kode, bukan round-trip database
+        Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+        IdSequenceService idSequenceService = (key, initialValue) -> sequences
+                .computeIfAbsent(key, k -> new AtomicLong(initialValue.getAsLong()))
+                .incrementAndGet();
+        loyaltyService = new LoyaltyServiceImpl(null, null, null, null, null, idSequenceService);
+
+        coupons = new Coupon[] {
+                coupon("Diskon Akhir Tahun 2026"),
+                coupon("Bali Holiday 15%"),
+                coupon("FLIGHT"),
+                coupon("")};
+        customerIds = new UUID[customers];
+        for (int i = 0; i < customers; i++) {
+            customerIds[i] = new UUID(2306165963L, i);
+        }
+    }
+
+    @Benchmark
+    public String generateCouponCode(Cursor cursor) {
+        int i = cursor.next++;
+        return loyaltyService.generateCouponCode(coupons[i & 3], customerIds[Math.floorMod(i, customers)]);
+    }
+
+    // Helper methods
+    private static Coupon coupon(String name) {
+        return Coupon.builder()
+                .id(UUID.nameUUIDFromBytes(name.getBytes()))
+                .name(name)
+                .points(100)
+                .percentOff(10)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.dto.statistics.YearlyRevenueBreakdownDto;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.repository.RevenueRollupRepository;
+import apap.ti._5.tour_package_2306165963_be.util.SyntheticData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatisticsBenchmark {
+
+    // Jumlah baris hasil query / OrderedQuantity yang diagregasi
+    @Param({SyntheticData.SMALL, SyntheticData.MEDIUM, SyntheticData.LARGE})
+    int rows;
+
+    StatisticsServiceImpl statisticsService;
+    Package pkg;
+    Plan plan;
+    Map<String, String> vendorByActivity;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        RevenueRollupRepository repository = mock(RevenueRollupRepository.class);
+        when(repository.sumRevenueByMonthAndActivityType(anyInt()))
+                .thenReturn(SyntheticData.revenueRowsByMonthAndType(rows));
+        when(repository.sumRevenueByActivityType(anyInt()))
+                .thenReturn(SyntheticData.revenueRowsByType(rows));
+
+        statisticsService = new StatisticsServiceImpl();
+        ReflectionTestUtils.setField(statisticsService, "revenueRollupRepository", repository);
+
+        // Satu plan besar, activity dari pool milik 50 vendor
+        pkg = SyntheticData.packageTree("PACK-bench-001", rows, rows);
+        plan = pkg.getPlans().get(0);
+        vendorByActivity = SyntheticData.vendorByActivity(SyntheticData.ACTIVITY_POOL, 50);
+    }
+
+    @Benchmark
+    public YearlyRevenueBreakdownDto yearlyRevenueBreakdown() {
+        return statisticsService.getYearlyRevenueBreakdown(2026);
+    }
+
+    @Benchmark
+    public Map<String, Long> revenueByActivityType() {
+        return statisticsService.getRevenueByActivityType(2026, null);
+    }
+
+    @Benchmark
+    public Map<RevenueRollupServiceImpl.BucketKey, Long> computeContributions() {
+        return RevenueRollupServiceImpl.computeContributions(pkg, plan, plan.getOrderedQuantities(), vendorByActivity);
+    }
+}
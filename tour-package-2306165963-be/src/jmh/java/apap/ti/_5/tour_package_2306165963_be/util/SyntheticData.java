@@ -0,0 +1,109 @@
+package apap.ti._5.tour_package_2306165963_be.util;
+
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generator data sintetis untuk benchmark, dibangun dari fixture TestDataFactory.
+ * Seed tetap supaya hasil antar build bisa dibandingkan.
+ */
+public final class SyntheticData {
+
+    // Skala standar benchmark: 10k / 100k / 1M
+    public static final String SMALL = "10000";
+    public static final String MEDIUM = "100000";
+    public static final String LARGE = "1000000";
+
+    // Jumlah activity berbeda yang dipakai packageTree
+    public static final int ACTIVITY_POOL = 1000;
+
+    public static final String[] ACTIVITY_TYPES = {"Flight", "Accommodation", "Vehicle"};
+
+    private static final long SEED = 2306165963L;
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Satu Package dengan total {@code orderedQuantities} OrderedQuantity, dibagi ke Plan berisi
+     * maksimal {@code perPlan} OrderedQuantity.
+     */
+    public static Package packageTree(String packageId, int orderedQuantities, int perPlan) {
+        Package pkg = TestDataFactory.pkg(packageId);
+        List<Plan> plans = new ArrayList<>(orderedQuantities / perPlan + 1);
+        int remaining = orderedQuantities;
+        int planIndex = 0;
+        while (remaining > 0) {
+            int count = Math.min(perPlan, remaining);
+            Plan plan = TestDataFactory.plan(new UUID(SEED, planIndex), packageId);
+            plan.setActivityType(ACTIVITY_TYPES[planIndex % ACTIVITY_TYPES.length]);
+            plan.setStatus("Fulfilled");
+            plan.setOrderedQuantities(orderedQuantities(plan.getId(), count, ACTIVITY_POOL));
+            plans.add(plan);
+            remaining -= count;
+            planIndex++;
+        }
+        pkg.setPlans(plans);
+        return pkg;
+    }
+
+    /**
+     * {@code count} OrderedQuantity untuk satu Plan, activity diambil bergiliran dari {@code activityCount} activity.
+     */
+    public static List<OrderedQuantity> orderedQuantities(UUID planId, int count, int activityCount) {
+        Random random = new Random(SEED ^ planId.getLeastSignificantBits());
+        List<OrderedQuantity> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            OrderedQuantity oq = TestDataFactory.oq(new UUID(planId.getLeastSignificantBits(), i), planId,
+                    activityId(i % activityCount));
+            oq.setOrderedQuota(1 + random.nextInt(10));
+            oq.setPrice(100_000L * (1 + random.nextInt(50)));
+            list.add(oq);
+        }
+        return list;
+    }
+
+    // activityId -> vendorId, activity dibagi rata ke vendorCount vendor
+    public static Map<String, String> vendorByActivity(int activityCount, int vendorCount) {
+        Map<String, String> vendors = new HashMap<>(activityCount * 2);
+        for (int i = 0; i < activityCount; i++) {
+            vendors.put(activityId(i), "vendor-" + (i % vendorCount));
+        }
+        return vendors;
+    }
+
+    // Baris hasil RevenueRollupRepository.sumRevenueByMonthAndActivityType: {month, activityType, revenue}
+    public static List<Object[]> revenueRowsByMonthAndType(int rows) {
+        Random random = new Random(SEED);
+        List<Object[]> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(new Object[] {
+                    1 + (i % 12),
+                    i % 4 == 3 ? "Vehicle Rental" : ACTIVITY_TYPES[i % 3],
+                    100_000L * (1 + random.nextInt(100))});
+        }
+        return list;
+    }
+
+    // Baris hasil RevenueRollupRepository.sumRevenueByActivityType: {activityType, revenue}
+    public static List<Object[]> revenueRowsByType(int rows) {
+        Random random = new Random(SEED);
+        List<Object[]> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(new Object[] {ACTIVITY_TYPES[i % 3], 100_000L * (1 + random.nextInt(100))});
+        }
+        return list;
+    }
+
+    public static String activityId(int index) {
+        return "act-" + index;
+    }
+}
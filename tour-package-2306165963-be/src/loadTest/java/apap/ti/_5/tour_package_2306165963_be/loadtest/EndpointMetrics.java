@@ -0,0 +1,131 @@
+package apap.ti._5.tour_package_2306165963_be.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Latency dan status per endpoint (method + route template). Semua sample disimpan lalu diurutkan
+ * saat report, jadi percentile-nya exact, bukan estimasi histogram.
+ */
+public class EndpointMetrics {
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    public void startRecording() {
+        recording = true;
+    }
+
+    public void stopRecording() {
+        recording = false;
+    }
+
+    public void record(String endpoint, long latencyNanos, int status) {
+        if (recording) {
+            recorders.computeIfAbsent(endpoint, key -> new Recorder()).add(latencyNanos, status);
+        }
+    }
+
+    public Map<String, Object> summary(double measuredSeconds) {
+        Map<String, Object> endpoints = new TreeMap<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Map<String, Object> stats = entry.getValue().summary(measuredSeconds);
+            endpoints.put(entry.getKey(), stats);
+            totalRequests += (long) stats.get("requests");
+            totalErrors += (long) stats.get("errors");
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("requests", totalRequests);
+        totals.put("errors", totalErrors);
+        totals.put("errorRate", rate(totalErrors, totalRequests));
+        totals.put("throughputPerSecond", round(totalRequests / measuredSeconds));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totals", totals);
+        summary.put("endpoints", endpoints);
+        return summary;
+    }
+
+    // Helper methods
+    private static double rate(long part, long total) {
+        return total == 0 ? 0.0 : round((double) part / total);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10_000.0) / 10_000.0;
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static final class Recorder {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long latencyNanos, int status) {
+            lock.lock();
+            try {
+                if (size == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, size * 2);
+                }
+                latencies[size++] = latencyNanos;
+                statuses.merge(status, 1L, Long::sum);
+                // status 0 = request gagal sebelum ada response (timeout, connection refused)
+                if (status == 0 || status >= 400) {
+                    errors++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Map<String, Object> summary(double measuredSeconds) {
+            lock.lock();
+            try {
+                long[] sorted = Arrays.copyOf(latencies, size);
+                Arrays.sort(sorted);
+                long sum = 0;
+                for (long latency : sorted) {
+                    sum += latency;
+                }
+
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("requests", (long) size);
+                stats.put("errors", errors);
+                stats.put("errorRate", rate(errors, size));
+                stats.put("throughputPerSecond", round(size / measuredSeconds));
+                stats.put("meanMs", size == 0 ? 0.0 : millis(sum / size));
+                stats.put("p50Ms", millis(percentile(sorted, 0.50)));
+                stats.put("p95Ms", millis(percentile(sorted, 0.95)));
+                stats.put("p99Ms", millis(percentile(sorted, 0.99)));
+                stats.put("maxMs", size == 0 ? 0.0 : millis(sorted[size - 1]));
+                Map<String, Long> byStatus = new LinkedHashMap<>();
+                statuses.forEach((status, count) -> byStatus.put(String.valueOf(status), count));
+                stats.put("statuses", byStatus);
+                return stats;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Nearest-rank percentile
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package apap.ti._5.tour_package_2306165963_be.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * HTTP client tipis di atas java.net.http. Setiap call dicatat ke {@link EndpointMetrics} dengan label
+ * route template (mis. "GET /api/packages/{id}") supaya id yang berbeda tidak jadi endpoint terpisah.
+ */
+public class LoadClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final String baseUrl;
+    private final EndpointMetrics metrics;
+
+    public LoadClient(String baseUrl, EndpointMetrics metrics) {
+        this.baseUrl = baseUrl;
+        this.metrics = metrics;
+    }
+
+    public JsonNode get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET());
+    }
+
+    public JsonNode post(String endpoint, String path, String token, Object body) {
+        return send(endpoint, request(path, token).POST(json(body)));
+    }
+
+    public JsonNode put(String endpoint, String path, String token, Object body) {
+        return send(endpoint, request(path, token).PUT(json(body)));
+    }
+
+    public JsonNode delete(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).DELETE());
+    }
+
+    // Endpoint partner loyalty: autentikasi X-API-KEY, bukan JWT
+    public JsonNode postWithApiKey(String endpoint, String path, String apiKey, Object body) {
+        return send(endpoint, request(path, null).header("X-API-KEY", apiKey).POST(json(body)));
+    }
+
+    /**
+     * Kirim request dan kembalikan field "data" dari response, atau null kalau gagal (status >= 400 / exception).
+     */
+    private JsonNode send(String endpoint, HttpRequest.Builder builder) {
+        long start = System.nanoTime();
+        int status = 0;
+        try {
+            HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            if (status >= 400 || response.body().length == 0) {
+                return null;
+            }
+            JsonNode body = objectMapper.readTree(response.body());
+            return body.has("data") ? body.get("data") : body;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        } finally {
+            metrics.record(endpoint, System.nanoTime() - start, status);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Cannot serialize request body", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package apap.ti._5.tour_package_2306165963_be.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Bandingkan dua report {@link LoadTestRunner} (baseline vs candidate): throughput, error rate dan
+ * p50/p95/p99 per endpoint, plus selisihnya dalam persen. Dipakai task loadTestCompare untuk
+ * platform thread vs virtual thread pada workload dan concurrency yang sama.
+ *
+ * -DloadTest.baseline=... -DloadTest.candidate=... -DloadTest.comparison=...
+ */
+public class LoadTestComparison {
+
+    private static final String[] METRICS = {"throughputPerSecond", "errorRate", "p50Ms", "p95Ms", "p99Ms"};
+
+    public static void main(String[] args) throws Exception {
+        Path baselinePath = Path.of(requiredProperty("loadTest.baseline"));
+        Path candidatePath = Path.of(requiredProperty("loadTest.candidate"));
+        Path outputPath = Path.of(requiredProperty("loadTest.comparison"));
+
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        JsonNode baseline = mapper.readTree(baselinePath.toFile());
+        JsonNode candidate = mapper.readTree(candidatePath.toFile());
+
+        Map<String, Object> comparison = compare(baseline, candidate);
+        Files.createDirectories(outputPath.toAbsolutePath().getParent());
+        mapper.writeValue(outputPath.toFile(), comparison);
+
+        print(comparison);
+        System.out.println("Comparison written to " + outputPath.toAbsolutePath());
+    }
+
+    static Map<String, Object> compare(JsonNode baseline, JsonNode candidate) {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("throughputPerSecond", delta(baseline.path("totals"), candidate.path("totals"), "throughputPerSecond"));
+        totals.put("errorRate", delta(baseline.path("totals"), candidate.path("totals"), "errorRate"));
+
+        // Endpoint yang hanya muncul di salah satu report tetap ditampilkan (nilai sisi lain 0)
+        TreeSet<String> routes = new TreeSet<>();
+        baseline.path("endpoints").fieldNames().forEachRemaining(routes::add);
+        candidate.path("endpoints").fieldNames().forEachRemaining(routes::add);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (String route : routes) {
+            JsonNode before = baseline.path("endpoints").path(route);
+            JsonNode after = candidate.path("endpoints").path(route);
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            for (String metric : METRICS) {
+                metrics.put(metric, delta(before, after, metric));
+            }
+            endpoints.put(route, metrics);
+        }
+
+        Map<String, Object> comparison = new LinkedHashMap<>();
+        comparison.put("baseline", baseline.path("label").asText());
+        comparison.put("candidate", candidate.path("label").asText());
+        comparison.put("baselineConfig", baseline.path("config"));
+        comparison.put("candidateConfig", candidate.path("config"));
+        comparison.put("totals", totals);
+        comparison.put("endpoints", endpoints);
+        return comparison;
+    }
+
+    // Helper methods
+    private static Map<String, Object> delta(JsonNode before, JsonNode after, String metric) {
+        double baselineValue = before.path(metric).asDouble();
+        double candidateValue = after.path(metric).asDouble();
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("baseline", baselineValue);
+        delta.put("candidate", candidateValue);
+        delta.put("changePercent", baselineValue == 0
+                ? null
+                : Math.round((candidateValue - baselineValue) / baselineValue * 1000.0) / 10.0);
+        return delta;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> comparison) {
+        System.out.printf("%s -> %s%n", comparison.get("baseline"), comparison.get("candidate"));
+        System.out.printf("%-55s %-20s %12s %12s %9s%n", "endpoint", "metric", "baseline", "candidate", "change");
+        print("TOTAL", (Map<String, Object>) comparison.get("totals"));
+        ((Map<String, Object>) comparison.get("endpoints"))
+                .forEach((route, metrics) -> print(route, (Map<String, Object>) metrics));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(String route, Map<String, Object> metrics) {
+        metrics.forEach((metric, value) -> {
+            Map<String, Object> delta = (Map<String, Object>) value;
+            Object change = delta.get("changePercent");
+            System.out.printf("%-55s %-20s %12.2f %12.2f %9s%n", route, metric,
+                    (Double) delta.get("baseline"), (Double) delta.get("candidate"),
+                    change == null ? "n/a" : change + "%");
+        });
+    }
+
+    private static String requiredProperty(String key) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(key + " is required");
+        }
+        return value;
+    }
+}
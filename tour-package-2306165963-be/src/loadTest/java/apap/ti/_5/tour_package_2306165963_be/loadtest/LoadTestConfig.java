@@ -0,0 +1,51 @@
+package apap.ti._5.tour_package_2306165963_be.loadtest;
+
+import java.nio.file.Path;
+
+/**
+ * Parameter load test, dibaca dari system property "loadTest.*"
+ * (task Gradle meneruskan -PloadTest.xxx=... sebagai system property).
+ */
+public record LoadTestConfig(
+        int durationSeconds,
+        int warmupSeconds,
+        int concurrency,
+        int customers,
+        int activities,
+        boolean virtualThreads,
+        String baseUrl,
+        String jwtSecret,
+        String apiKey,
+        String label,
+        Path reportPath) {
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                intProperty("loadTest.durationSeconds", 60),
+                intProperty("loadTest.warmupSeconds", 10),
+                intProperty("loadTest.concurrency", 50),
+                intProperty("loadTest.customers", 20),
+                intProperty("loadTest.activities", 50),
+                Boolean.parseBoolean(System.getProperty("loadTest.virtualThreads", "false")),
+                // Kosong = boot aplikasi sendiri di embedded Postgres
+                System.getProperty("loadTest.baseUrl", ""),
+                System.getProperty("loadTest.jwtSecret", ""),
+                System.getProperty("loadTest.apiKey", ""),
+                System.getProperty("loadTest.label", "local"),
+                Path.of(System.getProperty("loadTest.report", "build/reports/load-test/report.json")));
+    }
+
+    public boolean embedded() {
+        return baseUrl.isBlank();
+    }
+
+    public LoadTestConfig withTarget(String baseUrl, String jwtSecret, String apiKey) {
+        return new LoadTestConfig(durationSeconds, warmupSeconds, concurrency, customers, activities,
+                virtualThreads, baseUrl, jwtSecret, apiKey, label, reportPath);
+    }
+
+    private static int intProperty(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
@@ -0,0 +1,133 @@
+package apap.ti._5.tour_package_2306165963_be.loadtest;
+
+import apap.ti._5.tour_package_2306165963_be.TourPackage2306165963BeApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load test end-to-end: boot aplikasi di embedded Postgres (atau tembak instance yang sudah jalan lewat
+ * -PloadTest.baseUrl), jalankan {@link Workload} dengan N virtual user, lalu tulis report JSON
+ * (throughput, error rate, p50/p95/p99 per endpoint) untuk dibandingkan antar commit / konfigurasi.
+ *
+ * ./gradlew loadTest -PloadTest.concurrency=200 -PloadTest.virtualThreads=true -PloadTest.label=vt-on
+ * ./gradlew loadTestCompare -PloadTest.concurrency=200   (platform vs virtual thread, lihat LoadTestComparison)
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        EmbeddedPostgres postgres = null;
+        ConfigurableApplicationContext context = null;
+        try {
+            if (config.embedded()) {
+                postgres = EmbeddedPostgres.builder().start();
+                context = boot(config, postgres.getJdbcUrl("postgres", "postgres"));
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                config = config.withTarget("http://127.0.0.1:" + port,
+                        context.getEnvironment().getRequiredProperty("tour_package.app.jwtSecret"),
+                        context.getEnvironment().getRequiredProperty("loyalty.api.key"));
+            } else if (config.jwtSecret().isBlank() || config.apiKey().isBlank()) {
+                throw new IllegalArgumentException("loadTest.jwtSecret and loadTest.apiKey are required with loadTest.baseUrl");
+            }
+            run(config);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    // Helper methods
+    private static ConfigurableApplicationContext boot(LoadTestConfig config, String jdbcUrl) {
+        // Mode virtual thread lewat profile yang sama dengan deployment, jadi pool koneksi ikut mode yang diukur.
+        // Sisanya lewat args, bukan .properties(): default properties kalah prioritas dari application.properties
+        return new SpringApplicationBuilder(TourPackage2306165963BeApplication.class)
+                .profiles(config.virtualThreads() ? new String[] {"virtual-threads"} : new String[0])
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        // wilayah.id tidak dipanggil oleh workload; arahkan ke port mati supaya warm-up gagal cepat
+                        "--tour_package.location.base-url=http://127.0.0.1:9",
+                        "--tour_package.location.snapshot-path=build/load-test/location-snapshot.json");
+    }
+
+    private static void run(LoadTestConfig config) throws Exception {
+        EndpointMetrics metrics = new EndpointMetrics();
+        LoadClient client = new LoadClient(config.baseUrl(), metrics);
+        Workload workload = new Workload(client, new Tokens(config.jwtSecret(), config.customers()), config.apiKey());
+        workload.setup(config.activities());
+
+        long startNanos = System.nanoTime();
+        long measureFrom = startNanos + config.warmupSeconds() * 1_000_000_000L;
+        long deadline = measureFrom + config.durationSeconds() * 1_000_000_000L;
+        System.out.printf("Load test '%s' against %s: %d users, %ds warmup, %ds measured%n",
+                config.label(), config.baseUrl(), config.concurrency(), config.warmupSeconds(), config.durationSeconds());
+
+        // Client selalu pakai virtual thread supaya concurrency tinggi tidak dibatasi thread pool client
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>(config.concurrency());
+            for (int i = 0; i < config.concurrency(); i++) {
+                int user = i;
+                running.add(users.submit(() -> workload.run(user, deadline)));
+            }
+
+            Thread.sleep(Math.max(0, (measureFrom - System.nanoTime()) / 1_000_000));
+            metrics.startRecording();
+            long recordingStart = System.nanoTime();
+            for (Future<?> future : running) {
+                future.get();
+            }
+            metrics.stopRecording();
+            double measuredSeconds = (System.nanoTime() - recordingStart) / 1_000_000_000.0;
+            writeReport(config, metrics.summary(measuredSeconds), measuredSeconds);
+        }
+    }
+
+    private static void writeReport(LoadTestConfig config, Map<String, Object> summary, double measuredSeconds)
+            throws Exception {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("baseUrl", config.baseUrl());
+        settings.put("embedded", config.embedded());
+        settings.put("concurrency", config.concurrency());
+        settings.put("customers", config.customers());
+        settings.put("activities", config.activities());
+        settings.put("warmupSeconds", config.warmupSeconds());
+        settings.put("durationSeconds", config.durationSeconds());
+        settings.put("virtualThreads", config.virtualThreads());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", config.label());
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("config", settings);
+        report.put("measuredSeconds", Math.round(measuredSeconds * 1000.0) / 1000.0);
+        report.putAll(summary);
+
+        Files.createDirectories(config.reportPath().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.reportPath().toFile(), report);
+        System.out.println("Load test report written to " + config.reportPath().toAbsolutePath());
+        System.out.println("Totals: " + summary.get("totals"));
+    }
+}
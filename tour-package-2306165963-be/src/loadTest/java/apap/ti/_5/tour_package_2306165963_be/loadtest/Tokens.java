@@ -0,0 +1,69 @@
+package apap.ti._5.tour_package_2306165963_be.loadtest;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JWT untuk user sintetis, ditandatangani dengan secret yang sama dengan aplikasi
+ * (klaim id/role/email seperti token dari service auth). Dibuat sekali di awal supaya
+ * biaya signing tidak ikut terukur.
+ */
+public class Tokens {
+
+    private static final int VENDORS = 5;
+    private static final long TTL_MS = 6 * 60 * 60 * 1000L;
+
+    private final List<String> customerIds = new ArrayList<>();
+    private final List<String> customerTokens = new ArrayList<>();
+    private final List<String> vendorTokens = new ArrayList<>();
+    private final String superadminToken;
+
+    public Tokens(String jwtSecret, int customers) {
+        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        for (int i = 0; i < customers; i++) {
+            String id = UUID.randomUUID().toString();
+            customerIds.add(id);
+            customerTokens.add(sign(key, id, "customer" + i, "Customer"));
+        }
+        for (int i = 0; i < VENDORS; i++) {
+            vendorTokens.add(sign(key, UUID.randomUUID().toString(), "vendor" + i, "TourPackageVendor"));
+        }
+        superadminToken = sign(key, UUID.randomUUID().toString(), "superadmin", "Superadmin");
+    }
+
+    public String customerId(int user) {
+        return customerIds.get(user % customerIds.size());
+    }
+
+    public String customer(int user) {
+        return customerTokens.get(user % customerTokens.size());
+    }
+
+    public String vendor(int index) {
+        return vendorTokens.get(index % vendorTokens.size());
+    }
+
+    public String superadmin() {
+        return superadminToken;
+    }
+
+    // Helper methods
+    private static String sign(SecretKey key, String id, String username, String role) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .subject(username)
+                .claim("id", id)
+                .claim("role", role)
+                .claim("email", username + "@loadtest.local")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + TTL_MS))
+                .signWith(key)
+                .compact();
+    }
+}
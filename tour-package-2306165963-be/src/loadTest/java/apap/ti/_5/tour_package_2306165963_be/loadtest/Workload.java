@@ -0,0 +1,210 @@
+package apap.ti._5.tour_package_2306165963_be.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Campuran traffic yang meniru pemakaian nyata: customer browsing dan menyusun package
+ * (package -> plan -> ordered quantity), memproses package, vendor/superadmin membuka statistik,
+ * dan partner loyalty menambah poin lalu customer membeli coupon.
+ */
+public class Workload {
+
+    // Bobot skenario (total 100)
+    private static final int BROWSE = 35;
+    private static final int BUILD = 25;
+    private static final int PROCESS = 10;
+    private static final int CLEANUP = 8;
+    private static final int STATISTICS = 8;
+
+    private static final String LOCATION = "Jakarta";
+    private static final String ACTIVITY_TYPE = "Accommodation";
+
+    private final LoadClient client;
+    private final Tokens tokens;
+    private final String apiKey;
+    private final LocalDateTime base = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.MINUTES);
+    private final List<String> activityIds = new ArrayList<>();
+    private final AtomicLong references = new AtomicLong();
+    private String couponId;
+
+    public Workload(LoadClient client, Tokens tokens, String apiKey) {
+        this.client = client;
+        this.tokens = tokens;
+        this.apiKey = apiKey;
+    }
+
+    /**
+     * Data awal lewat API yang sama: activity milik beberapa vendor dan satu coupon.
+     * Dijalankan sebelum metrics mulai merekam.
+     */
+    public void setup(int activities) {
+        for (int i = 0; i < activities; i++) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("activityName", "Load Test Hotel " + i);
+            body.put("activityType", ACTIVITY_TYPE);
+            body.put("activityItem", "Room " + i);
+            body.put("capacity", 1000);
+            body.put("price", 500_000L + i * 1_000L);
+            body.put("startDate", base.plusDays(1));
+            body.put("endDate", base.plusDays(2));
+            body.put("startLocation", LOCATION);
+            body.put("endLocation", LOCATION);
+            JsonNode created = client.post("POST /api/activities", "/api/activities", tokens.vendor(i), body);
+            if (created != null) {
+                activityIds.add(created.get("id").asText());
+            }
+        }
+        if (activityIds.isEmpty()) {
+            throw new IllegalStateException("Load test setup failed: no activity could be created");
+        }
+
+        JsonNode coupon = client.post("POST /api/loyalty/coupons", "/api/loyalty/coupons", tokens.superadmin(),
+                Map.of("name", "Load Test 10%", "description", "Load test coupon", "points", 100, "percentOff", 10));
+        couponId = coupon != null ? coupon.get("id").asText() : null;
+    }
+
+    /**
+     * Satu virtual user: jalankan skenario acak sampai deadline.
+     */
+    public void run(int user, long deadlineNanos) {
+        String customerId = tokens.customerId(user);
+        String token = tokens.customer(user);
+        Deque<String[]> fulfilled = new ArrayDeque<>();
+        String[] lastBuilt = null;
+
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            if (roll < BROWSE) {
+                browse(token, lastBuilt);
+            } else if (roll < BROWSE + BUILD) {
+                String[] built = build(token);
+                if (built != null) {
+                    lastBuilt = built;
+                    fulfilled.push(built);
+                }
+            } else if (roll < BROWSE + BUILD + PROCESS) {
+                if (!fulfilled.isEmpty()) {
+                    String[] target = fulfilled.pop();
+                    client.post("POST /api/packages/{id}/process", "/api/packages/" + target[0] + "/process",
+                            token, Map.of());
+                }
+            } else if (roll < BROWSE + BUILD + PROCESS + CLEANUP) {
+                buildAndTearDown(token);
+            } else if (roll < BROWSE + BUILD + PROCESS + CLEANUP + STATISTICS) {
+                statistics(user);
+            } else {
+                loyalty(customerId, token);
+            }
+        }
+    }
+
+    // Helper methods
+    private void browse(String token, String[] lastBuilt) {
+        client.get("GET /api/packages?view=summary", "/api/packages?view=summary", token);
+        client.get("GET /api/packages", "/api/packages?size=20", token);
+        if (lastBuilt != null) {
+            client.get("GET /api/packages/{id}", "/api/packages/" + lastBuilt[0], token);
+            client.get("GET /api/plans/{id}", "/api/plans/" + lastBuilt[1], token);
+            client.get("GET /api/plans/{id}/compatible-activities",
+                    "/api/plans/" + lastBuilt[1] + "/compatible-activities", token);
+        }
+    }
+
+    // Package quota 2 -> plan -> OQ 1 (Unfulfilled) -> update ke 2 (Fulfilled). Return {packageId, planId, oqId}.
+    private String[] build(String token) {
+        JsonNode pkg = client.post("POST /api/packages", "/api/packages", token, packageBody());
+        if (pkg == null) {
+            return null;
+        }
+        String packageId = pkg.get("id").asText();
+
+        JsonNode plan = client.post("POST /api/packages/{id}/plans", "/api/packages/" + packageId + "/plans",
+                token, planBody());
+        if (plan == null) {
+            return null;
+        }
+        String planId = plan.get("id").asText();
+
+        JsonNode oq = client.post("POST /api/plans/{id}/ordered-quantities",
+                "/api/plans/" + planId + "/ordered-quantities", token,
+                Map.of("activityId", randomActivity(), "orderedQuota", 1));
+        if (oq == null) {
+            return null;
+        }
+        String oqId = oq.get("id").asText();
+
+        client.put("PUT /api/ordered-quantities/{id}", "/api/ordered-quantities/" + oqId + "?newQuota=2", token,
+                Map.of());
+        return new String[] {packageId, planId, oqId};
+    }
+
+    private void buildAndTearDown(String token) {
+        String[] built = build(token);
+        if (built == null) {
+            return;
+        }
+        client.delete("DELETE /api/ordered-quantities/{id}", "/api/ordered-quantities/" + built[2], token);
+        client.delete("DELETE /api/plans/{id}", "/api/plans/" + built[1], token);
+        client.delete("DELETE /api/packages/{id}", "/api/packages/" + built[0], token);
+    }
+
+    private void statistics(int user) {
+        String token = user % 2 == 0 ? tokens.superadmin() : tokens.vendor(user);
+        int year = base.getYear();
+        client.get("GET /api/statistics/revenue/yearly/{year}", "/api/statistics/revenue/yearly/" + year, token);
+        client.get("GET /api/statistics/revenue/monthly/{year}/{month}",
+                "/api/statistics/revenue/monthly/" + year + "/" + base.getMonthValue(), token);
+    }
+
+    private void loyalty(String customerId, String token) {
+        Map<String, Object> addPoints = new LinkedHashMap<>();
+        addPoints.put("customerId", customerId);
+        addPoints.put("points", 150);
+        addPoints.put("reference", "load-" + UUID.randomUUID() + "-" + references.incrementAndGet());
+        client.postWithApiKey("POST /api/add-points", "/api/add-points", apiKey, addPoints);
+
+        client.get("GET /api/loyalty/dashboard/{userId}", "/api/loyalty/dashboard/" + customerId, token);
+        if (couponId != null) {
+            client.post("POST /api/loyalty/coupons/purchase", "/api/loyalty/coupons/purchase", token,
+                    Map.of("customerId", customerId, "couponId", couponId));
+        }
+    }
+
+    private Map<String, Object> packageBody() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("userId", "placeholder");
+        body.put("packageName", "Load Test Package " + ThreadLocalRandom.current().nextInt(1_000_000));
+        body.put("quota", 2);
+        body.put("price", 2_000_000L);
+        body.put("startDate", base);
+        body.put("endDate", base.plusDays(7));
+        return body;
+    }
+
+    private Map<String, Object> planBody() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("activityType", ACTIVITY_TYPE);
+        body.put("price", 0L);
+        body.put("startDate", base);
+        body.put("endDate", base.plusDays(3));
+        body.put("startLocation", LOCATION);
+        body.put("endLocation", LOCATION);
+        return body;
+    }
+
+    private String randomActivity() {
+        return activityIds.get(ThreadLocalRandom.current().nextInt(activityIds.size()));
+    }
+}
@@ -2,8 +2,10 @@ package apap.ti._5.tour_package_2306165963_be;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TourPackage2306165963BeApplication {
 
 	public static void main(String[] args) {
@@ -21,6 +21,7 @@ public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
     private static final String API_KEY_HEADER = "X-API-KEY";
     private static final List<String> PROTECTED_PATHS = Arrays.asList(
             "/api/add-points",
+            "/api/add-points/batch",
             "/api/use-coupon");
 
     @Value("${loyalty.api.key:default-loyalty-api-key}")
@@ -0,0 +1,40 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Catat setiap lazy collection yang di-initialize ke request yang sedang di-profile,
+ * supaya loop yang menyentuh collection per parent terdeteksi oleh {@link NPlusOneDetector}.
+ */
+@Component
+public class CollectionInitializationListener implements InitializeCollectionEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void register() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null && event.getCollection() != null) {
+            stats.collectionInitialized(event.getCollection().getRole());
+        }
+    }
+}
@@ -5,9 +5,12 @@ import apap.ti._5.tour_package_2306165963_be.model.Package;
 import apap.ti._5.tour_package_2306165963_be.repository.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -26,9 +29,21 @@ public class DummyDataInitializer implements CommandLineRunner {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Virtual thread kalau spring.threads.virtual.enabled=true, thread pool biasa kalau tidak
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor applicationTaskExecutor;
+
     @Override
-    @Transactional
-    public void run(String... args) {
+    public void run(String... args) throws Exception {
+        // Seeding ikut execution mode aplikasi; startup tetap menunggu sampai selesai
+        applicationTaskExecutor.submit(() -> transactionTemplate.executeWithoutResult(status -> seed())).get();
+    }
+
+    private void seed() {
         if (activityRepository.count() > 0) {
             log.info("✅ Dummy data already exists. Skipping initialization.");
             return;
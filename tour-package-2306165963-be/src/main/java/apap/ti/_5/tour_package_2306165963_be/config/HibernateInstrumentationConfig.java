@@ -0,0 +1,21 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pasang hook Hibernate untuk hitungan SQL dan waktu JDBC per request (lihat {@link RequestMetricsFilter}).
+ */
+@Configuration
+public class HibernateInstrumentationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlInstrumentationCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcTimingSessionListener.class.getName());
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Listener per Session (dibuat Hibernate lewat hibernate.session.events.auto) yang menjumlahkan
+ * waktu eksekusi JDBC ke request yang sedang berjalan.
+ */
+public class JdbcTimingSessionListener extends BaseSessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    // Helper methods
+    private static void record(long start) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null && start != 0) {
+            stats.jdbcExecuted(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deteksi N+1 per request: statement dengan bentuk sama yang diulang (findById berulang untuk entity
+ * yang sama, query per parent di loop) dan lazy collection dengan role sama yang di-initialize berulang.
+ * Hanya sebagian request yang di-profile (sample-rate) supaya aman dinyalakan di production.
+ * Temuan di-log, dihitung di metric tour_package.query.n_plus_one dan N report terakhir bisa dilihat
+ * di /actuator/nplusone. Default mati (tour_package.n-plus-one.enabled).
+ * <p>
+ * Yang dihitung adalah SQL yang benar-benar dikirim ({@link SqlStatementInspector}). Dengan open-in-view,
+ * findById berulang untuk id yang sama dalam satu request dilayani first-level cache dan tidak pernah
+ * jadi SQL, jadi tidak terdeteksi di sini; itu memang tidak menambah query. Tanpa open-in-view (atau di
+ * luar request) pola yang sama bisa muncul sebagai repeated_statement.
+ */
+@Slf4j
+@Component
+public class NPlusOneDetector {
+
+    static final String FINDINGS_COUNTER = "tour_package.query.n_plus_one";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int repeatThreshold;
+    private final int maxReports;
+
+    private final Deque<RequestReport> recentReports = new ArrayDeque<>();
+    private final ReentrantLock reportsLock = new ReentrantLock();
+
+    @Autowired
+    public NPlusOneDetector(MeterRegistry meterRegistry,
+                            @Value("${tour_package.n-plus-one.enabled:false}") boolean enabled,
+                            @Value("${tour_package.n-plus-one.sample-rate:0.1}") double sampleRate,
+                            @Value("${tour_package.n-plus-one.repeat-threshold:5}") int repeatThreshold,
+                            @Value("${tour_package.n-plus-one.max-reports:50}") int maxReports) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.repeatThreshold = repeatThreshold;
+        this.maxReports = maxReports;
+    }
+
+    public boolean shouldSample() {
+        return enabled && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Analisis profile request yang sudah selesai. Return null kalau request tidak di-sample
+     * atau tidak ada yang mencurigakan.
+     */
+    public RequestReport analyze(String method, String route, RequestQueryStats stats) {
+        QueryProfile profile = stats.getProfile();
+        if (profile == null) {
+            return null;
+        }
+
+        List<Finding> findings = new ArrayList<>();
+        collect(findings, Finding.REPEATED_STATEMENT, profile.getStatements());
+        collect(findings, Finding.LAZY_COLLECTION_LOOP, profile.getCollections());
+        if (findings.isEmpty()) {
+            return null;
+        }
+
+        RequestReport report = new RequestReport(Instant.now(), method, route, stats.getStatements(), findings);
+        for (Finding finding : findings) {
+            Counter.builder(FINDINGS_COUNTER)
+                    .tag("route", route)
+                    .tag("kind", finding.kind())
+                    .tag("source", finding.source())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("N+1 suspect on {} {}: {} x{} from {} -> {}",
+                    method, route, finding.kind(), finding.count(), finding.sources(), finding.query());
+        }
+        store(report);
+        return report;
+    }
+
+    public List<RequestReport> recentReports() {
+        reportsLock.lock();
+        try {
+            return List.copyOf(recentReports);
+        } finally {
+            reportsLock.unlock();
+        }
+    }
+
+    // Helper methods
+    private void collect(List<Finding> findings, String kind, Map<String, QueryProfile.Occurrence> occurrences) {
+        occurrences.forEach((query, occurrence) -> {
+            if (occurrence.getCount() >= repeatThreshold) {
+                findings.add(new Finding(kind, query, occurrence.getCount(), occurrence.getTopSource(),
+                        Map.copyOf(occurrence.getSources())));
+            }
+        });
+    }
+
+    private void store(RequestReport report) {
+        reportsLock.lock();
+        try {
+            recentReports.addFirst(report);
+            while (recentReports.size() > maxReports) {
+                recentReports.removeLast();
+            }
+        } finally {
+            reportsLock.unlock();
+        }
+    }
+
+    public record RequestReport(Instant at, String method, String route, int statements, List<Finding> findings) {
+    }
+
+    public record Finding(String kind, String query, int count, String source, Map<String, Integer> sources) {
+        static final String REPEATED_STATEMENT = "repeated_statement";
+        static final String LAZY_COLLECTION_LOOP = "lazy_collection_loop";
+    }
+}
@@ -0,0 +1,22 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/nplusone: report N+1 terbaru dari request yang di-sample
+@Component
+@Endpoint(id = "nplusone")
+public class NPlusOneEndpoint {
+
+    @Autowired
+    private NPlusOneDetector nPlusOneDetector;
+
+    @ReadOperation
+    public List<NPlusOneDetector.RequestReport> reports() {
+        return nPlusOneDetector.recentReports();
+    }
+}
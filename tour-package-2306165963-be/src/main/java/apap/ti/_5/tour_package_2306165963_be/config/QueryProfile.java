@@ -0,0 +1,93 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Bentuk query (SQL yang dinormalisasi) dan role lazy collection yang di-load dalam satu request,
+ * masing-masing dengan jumlah kemunculan dan method aplikasi yang memicunya.
+ * Hanya dibuat untuk request yang di-sample karena mengambil stack frame per statement.
+ */
+public final class QueryProfile {
+
+    private static final String APP_PACKAGE = "apap.ti._5.tour_package_2306165963_be.";
+    private static final String CONFIG_PACKAGE = APP_PACKAGE + "config.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])\\d+(\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Occurrence> statements = new LinkedHashMap<>();
+    private final Map<String, Occurrence> collections = new LinkedHashMap<>();
+
+    void statement(String sql) {
+        statements.computeIfAbsent(shape(sql), key -> new Occurrence()).add(caller());
+    }
+
+    void collection(String role) {
+        collections.computeIfAbsent(role, key -> new Occurrence()).add(caller());
+    }
+
+    public Map<String, Occurrence> getStatements() {
+        return statements;
+    }
+
+    public Map<String, Occurrence> getCollections() {
+        return collections;
+    }
+
+    /**
+     * Literal dan panjang IN list dihapus supaya findById dengan id berbeda dan batch fetch
+     * dengan jumlah id berbeda dianggap satu bentuk query.
+     */
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    // Frame aplikasi terdekat (service, controller, mapper), dilewati hook di package config sendiri
+    private static String caller() {
+        Optional<StackWalker.StackFrame> frame = STACK_WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APP_PACKAGE)
+                        && !f.getClassName().startsWith(CONFIG_PACKAGE)
+                        && !f.getClassName().contains("$$"))
+                .findFirst());
+        return frame.map(f -> simpleName(f.getClassName()) + "." + f.getMethodName()).orElse("unknown");
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    public static final class Occurrence {
+        private int count;
+        private final Map<String, Integer> sources = new LinkedHashMap<>();
+
+        void add(String source) {
+            count++;
+            sources.merge(source, 1, Integer::sum);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public Map<String, Integer> getSources() {
+            return sources;
+        }
+
+        // Method yang paling sering memicu query ini
+        public String getTopSource() {
+            return sources.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse("unknown");
+        }
+    }
+}
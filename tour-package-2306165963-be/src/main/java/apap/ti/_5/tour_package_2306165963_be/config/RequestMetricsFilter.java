@@ -0,0 +1,117 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Latency, jumlah SQL statement dan waktu JDBC per route (template @RequestMapping, bukan URI mentah,
+ * supaya /api/packages/{id} tidak pecah jadi satu metric per id). Request yang melewati query budget
+ * di-log dan dihitung, untuk menangkap regresi N+1 di production. Lihat /actuator/metrics.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    static final String REQUEST_TIMER = "tour_package.request.latency";
+    static final String SQL_STATEMENTS = "tour_package.request.sql.statements";
+    static final String SQL_TIME = "tour_package.request.sql.time";
+    static final String BUDGET_EXCEEDED = "tour_package.request.query_budget.exceeded";
+    static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private final MeterRegistry meterRegistry;
+    private final NPlusOneDetector nPlusOneDetector;
+    private final int queryBudget;
+
+    @Autowired
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                NPlusOneDetector nPlusOneDetector,
+                                @Value("${tour_package.metrics.query-budget:20}") int queryBudget) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneDetector = nPlusOneDetector;
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        RequestQueryStats stats = RequestQueryStats.begin(nPlusOneDetector.shouldSample());
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            RequestQueryStats.end();
+            record(request, response, stats, elapsed);
+        }
+    }
+
+    // Helper methods
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestQueryStats stats,
+                        long elapsedNanos) {
+        String method = request.getMethod();
+        String route = route(request);
+
+        Timer.builder(REQUEST_TIMER)
+                .tag("method", method)
+                .tag("route", route)
+                .tag("status", String.valueOf(response.getStatus()))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder(SQL_STATEMENTS)
+                .tag("method", method)
+                .tag("route", route)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+
+        Timer.builder(SQL_TIME)
+                .tag("method", method)
+                .tag("route", route)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() > queryBudget) {
+            Counter.builder(BUDGET_EXCEEDED)
+                    .tag("method", method)
+                    .tag("route", route)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} issued {} SQL statements (budget {}), {} ms JDBC of {} ms total",
+                    method, route, stats.getStatements(), queryBudget,
+                    TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+
+        nPlusOneDetector.analyze(method, route, stats);
+    }
+
+    // Pattern diisi DispatcherServlet; kosong kalau request ditolak sebelum sampai controller (401, 404)
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+    }
+}
@@ -0,0 +1,71 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+/**
+ * Jumlah SQL statement dan waktu JDBC untuk request yang sedang diproses di thread ini.
+ * Diisi oleh {@link SqlStatementInspector} dan {@link JdbcTimingSessionListener}, dibaca oleh
+ * {@link RequestMetricsFilter}. Query lewat JdbcTemplate (LoyaltyPointsJdbcRepository) tidak
+ * melewati Hibernate, jadi tidak ikut terhitung.
+ * Untuk request yang di-sample {@link NPlusOneDetector}, bentuk query dan lazy collection yang
+ * di-load juga dicatat di {@link QueryProfile}.
+ */
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private final QueryProfile profile;
+    private int statements;
+    private long jdbcNanos;
+
+    private RequestQueryStats(QueryProfile profile) {
+        this.profile = profile;
+    }
+
+    public static RequestQueryStats begin() {
+        return begin(false);
+    }
+
+    public static RequestQueryStats begin(boolean profiled) {
+        RequestQueryStats stats = new RequestQueryStats(profiled ? new QueryProfile() : null);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    // Null di luar request (scheduler, startup)
+    public static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void statementPrepared(String sql) {
+        statements++;
+        if (profile != null) {
+            profile.statement(sql);
+        }
+    }
+
+    void jdbcExecuted(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    void collectionInitialized(String role) {
+        if (profile != null) {
+            profile.collection(role);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    // Null kalau request tidak di-sample
+    public QueryProfile getProfile() {
+        return profile;
+    }
+}
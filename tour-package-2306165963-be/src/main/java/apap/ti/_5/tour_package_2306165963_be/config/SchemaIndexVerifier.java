@@ -0,0 +1,94 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cek saat startup bahwa index dari db/migration benar-benar ada di Postgres,
+ * supaya lookup di repository tidak diam-diam jadi sequential scan.
+ */
+@Slf4j
+@Component
+public class SchemaIndexVerifier {
+
+    // Harus sinkron dengan V1__baseline_schema.sql dan V2__hot_path_indexes.sql
+    static final List<String> REQUIRED_INDEXES = List.of(
+            "idx_activities_type_route_start",
+            "idx_activities_type_price",
+            "idx_activities_vendor",
+            "idx_capacity_reservations_package",
+            "idx_capacity_reservations_activity",
+            "idx_loyalty_ledger_customer",
+            "idx_loyalty_ledger_created",
+            "idx_plans_package_status",
+            "idx_ordered_quantities_plan",
+            "idx_ordered_quantities_activity",
+            "idx_packages_start_id",
+            "idx_packages_user_start_id",
+            "idx_packages_status_start_id",
+            "idx_purchased_coupons_customer_date",
+            "idx_purchased_coupons_customer_coupon",
+            "idx_purchased_coupons_code_pattern",
+            "idx_plan_revenue_contributions_plan",
+            "idx_package_vendors_vendor_package");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${tour_package.schema.verify-indexes:true}")
+    private boolean verifyIndexes;
+
+    @Value("${tour_package.schema.fail-on-missing-index:true}")
+    private boolean failOnMissingIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() throws SQLException {
+        if (!verifyIndexes || !isPostgres()) {
+            return;
+        }
+
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class));
+        Set<String> missing = missingIndexes(existing);
+
+        if (missing.isEmpty()) {
+            log.info("All {} required indexes are present", REQUIRED_INDEXES.size());
+            return;
+        }
+        if (failOnMissingIndex) {
+            throw new IllegalStateException("Missing database indexes: " + missing);
+        }
+        log.warn("Missing database indexes: {}", missing);
+    }
+
+    static Set<String> missingIndexes(Set<String> existing) {
+        Set<String> missing = new TreeSet<>(REQUIRED_INDEXES);
+        missing.removeAll(existing);
+        return missing;
+    }
+
+    // Helper methods
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
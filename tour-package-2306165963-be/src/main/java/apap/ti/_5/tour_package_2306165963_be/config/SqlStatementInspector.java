@@ -0,0 +1,18 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Dipanggil Hibernate untuk setiap statement yang di-prepare; hanya menghitung, SQL tidak diubah.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.statementPrepared(sql);
+        }
+        return sql;
+    }
+}
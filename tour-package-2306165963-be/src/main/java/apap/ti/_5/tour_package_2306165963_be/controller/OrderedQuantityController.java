@@ -1,6 +1,7 @@
 package apap.ti._5.tour_package_2306165963_be.controller;
 
 import apap.ti._5.tour_package_2306165963_be.dto.DtoMapper;
+import apap.ti._5.tour_package_2306165963_be.dto.activity.ActivitySearchCriteria;
 import apap.ti._5.tour_package_2306165963_be.dto.orderedquantity.*;
 import apap.ti._5.tour_package_2306165963_be.model.Activity;
 import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
@@ -21,7 +22,6 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping("/package/{packageId}/plan/{planId}/ordered-quantity")
@@ -74,14 +74,13 @@ public class OrderedQuantityController {
         }
 
         // Get available activities matching plan's activity type
-        List<Activity> availableActivities = activityService.getAllActivities()
-                .stream()
-                .filter(a -> a.getActivityType().equals(plan.getActivityType()))
-                .filter(a -> !a.getStartDate().isBefore(plan.getStartDate()))
-                .filter(a -> !a.getEndDate().isAfter(plan.getEndDate()))
-                .filter(a -> a.getStartLocation().equals(plan.getStartLocation()))
-                .filter(a -> a.getEndLocation().equals(plan.getEndLocation()))
-                .collect(Collectors.toList());
+        List<Activity> availableActivities = activityService.searchActivities(ActivitySearchCriteria.builder()
+                .activityType(plan.getActivityType())
+                .startLocation(plan.getStartLocation())
+                .endLocation(plan.getEndLocation())
+                .startFrom(plan.getStartDate())
+                .endUntil(plan.getEndDate())
+                .build());
 
         model.addAttribute("packageId", packageId);
         model.addAttribute("planId", planId);
@@ -103,11 +102,11 @@ public class OrderedQuantityController {
         
         if (bindingResult.hasErrors()) {
             Optional<Plan> planOptional = planService.getPlanById(planId);
-            List<Activity> availableActivities = activityService.getAllActivities()
-                    .stream()
-                    .filter(a -> planOptional.isPresent() && 
-                                 a.getActivityType().equals(planOptional.get().getActivityType()))
-                    .collect(Collectors.toList());
+            List<Activity> availableActivities = planOptional.isPresent()
+                    ? activityService.searchActivities(ActivitySearchCriteria.builder()
+                            .activityType(planOptional.get().getActivityType())
+                            .build())
+                    : List.of();
             
             model.addAttribute("packageId", packageId);
             model.addAttribute("planId", planId);
@@ -126,11 +125,11 @@ public class OrderedQuantityController {
             return "redirect:/package/" + packageId + "/plan/" + planId;
         } catch (Exception e) {
             Optional<Plan> planOptional = planService.getPlanById(planId);
-            List<Activity> availableActivities = activityService.getAllActivities()
-                    .stream()
-                    .filter(a -> planOptional.isPresent() && 
-                                 a.getActivityType().equals(planOptional.get().getActivityType()))
-                    .collect(Collectors.toList());
+            List<Activity> availableActivities = planOptional.isPresent()
+                    ? activityService.searchActivities(ActivitySearchCriteria.builder()
+                            .activityType(planOptional.get().getActivityType())
+                            .build())
+                    : List.of();
             
             model.addAttribute("packageId", packageId);
             model.addAttribute("planId", planId);
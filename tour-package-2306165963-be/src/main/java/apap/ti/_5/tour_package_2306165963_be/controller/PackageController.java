@@ -13,7 +13,6 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -30,15 +29,11 @@ public class PackageController {
 
     @GetMapping
     public String getAllPackages(Model model, HttpServletRequest request) {
-        List<ReadPackageDto> packages = packageService.getAllPackages()
+        // List view cukup pakai summary projection, plan tree tidak perlu di-load
+        List<PackageSummaryDto> packages = packageService.getAllPackageSummaries()
                 .stream()
-                .map(pkg -> {
-                if (pkg.getPlans() == null) {
-                    pkg.setPlans(new ArrayList<>());
-                }
-                return dtoMapper.toReadDto(pkg);
-            })
-            .collect(Collectors.toList());
+                .map(dtoMapper::toSummaryDto)
+                .collect(Collectors.toList());
         
         model.addAttribute("listPackage", packages);
         model.addAttribute("currentUri", request.getRequestURI());
@@ -56,15 +51,10 @@ public class PackageController {
 
         final String vendorId = tempVendorId;
         
-        List<ReadPackageDto> packages = packageService.getAllPackages()
+        List<PackageSummaryDto> packages = packageService.getAllPackageSummaries()
                 .stream()
                 // .filter(pkg -> pkg.getUserId().equals(vendorId)) 
-                .map(pkg -> {
-                    if (pkg.getPlans() == null) {
-                        pkg.setPlans(new ArrayList<>());
-                    }
-                    return dtoMapper.toReadDto(pkg);
-                })
+                .map(dtoMapper::toSummaryDto)
                 .collect(Collectors.toList());
 
         model.addAttribute("listPackage", packages);
@@ -1,5 +1,6 @@
 package apap.ti._5.tour_package_2306165963_be.controller;
 
+import apap.ti._5.tour_package_2306165963_be.dto.statistics.YearlyRevenueBreakdownDto;
 import apap.ti._5.tour_package_2306165963_be.service.StatisticsService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,8 +34,11 @@ public class StatisticsController {
             year = Year.now().getValue();
         }
 
-        // Get revenue data
-        Map<String, Long> revenueData = statisticsService.getRevenueByActivityType(year, month);
+        // Matrix setahun dihitung sekali, revenue per type diambil dari situ
+        YearlyRevenueBreakdownDto yearlyBreakdown = statisticsService.getYearlyRevenueBreakdown(year);
+        Map<String, Long> revenueData = month == null
+                ? yearlyBreakdown.getRevenueByActivityType()
+                : yearlyBreakdown.getBreakdown().get(month);
 
         // Prepare years list (current year ± 5 years)
         List<Integer> years = new ArrayList<>();
@@ -49,6 +53,7 @@ public class StatisticsController {
                                       "November", "December");
 
         model.addAttribute("revenueData", revenueData);
+        model.addAttribute("yearlyBreakdown", yearlyBreakdown);
         model.addAttribute("years", years);
         model.addAttribute("months", months);
         model.addAttribute("selectedYear", year);
@@ -6,6 +6,7 @@ import apap.ti._5.tour_package_2306165963_be.dto.packagedto.*;
 import apap.ti._5.tour_package_2306165963_be.dto.plan.*;
 import apap.ti._5.tour_package_2306165963_be.model.*;
 import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.service.ActivityIndex;
 
 import org.springframework.stereotype.Component;
 
@@ -67,6 +68,22 @@ public class DtoMapper {
                 .build();
     }
 
+    public CompatibleActivityDto toCompatibleDto(ActivityIndex.ActivityEntry entry) {
+        return CompatibleActivityDto.builder()
+                .id(entry.id())
+                .vendorId(entry.vendorId())
+                .activityName(entry.activityName())
+                .activityItem(entry.activityItem())
+                .activityType(entry.activityType())
+                .price(entry.price())
+                .startDate(entry.startDate())
+                .endDate(entry.endDate())
+                .startLocation(entry.startLocation())
+                .endLocation(entry.endLocation())
+                .remainingCapacity(entry.remainingCapacity())
+                .build();
+    }
+
     public UpdateActivityDto toUpdateDto(Activity entity) {
         if (entity == null)
             return null;
@@ -136,6 +153,24 @@ public class DtoMapper {
                 .build();
     }
 
+    public PackageSummaryDto toSummaryDto(PackageSummaryView view) {
+        if (view == null)
+            return null;
+
+        return PackageSummaryDto.builder()
+                .id(view.getId())
+                .userId(view.getUserId())
+                .packageName(view.getPackageName())
+                .quota(view.getQuota())
+                .price(view.getPrice() != null ? view.getPrice() : 0L)
+                .status(view.getStatus() != null ? view.getStatus() : "Pending")
+                .startDate(view.getStartDate())
+                .endDate(view.getEndDate())
+                .planCount(view.getPlanCount() != null ? view.getPlanCount() : 0L)
+                .totalOrderedQuota(view.getTotalOrderedQuota() != null ? view.getTotalOrderedQuota() : 0L)
+                .build();
+    }
+
     public UpdatePackageDto toUpdateDto(Package entity) {
         if (entity == null)
             return null;
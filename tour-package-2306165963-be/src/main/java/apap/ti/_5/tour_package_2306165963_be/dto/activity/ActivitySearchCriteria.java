@@ -0,0 +1,37 @@
+package apap.ti._5.tour_package_2306165963_be.dto.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter gabungan untuk pencarian activity. Semua field opsional; null berarti tidak difilter.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivitySearchCriteria {
+    private String activityType;
+    private String startLocation;
+    private String endLocation;
+
+    // Window tanggal: activity harus mulai >= startFrom dan selesai <= endUntil
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime startFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime endUntil;
+
+    private Long minPrice;
+    private Long maxPrice;
+
+    // Capacity di activity sudah berkurang saat package diproses, jadi ini sisa capacity
+    private Integer minCapacity;
+
+    private String vendorId;
+}
@@ -0,0 +1,26 @@
+package apap.ti._5.tour_package_2306165963_be.dto.activity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompatibleActivityDto {
+    private String id;
+    private String vendorId;
+    private String activityName;
+    private String activityItem;
+    private String activityType;
+    private Long price;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String startLocation;
+    private String endLocation;
+    private Integer remainingCapacity;
+}
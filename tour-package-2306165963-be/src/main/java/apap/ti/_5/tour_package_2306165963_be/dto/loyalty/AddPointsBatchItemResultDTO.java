@@ -0,0 +1,27 @@
+package apap.ti._5.tour_package_2306165963_be.dto.loyalty;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddPointsBatchItemResultDTO {
+
+    public static final String STATUS_APPLIED = "APPLIED";
+    public static final String STATUS_DUPLICATE = "DUPLICATE";
+    public static final String STATUS_REJECTED = "REJECTED";
+
+    // Posisi item di request, supaya caller bisa mencocokkan hasilnya
+    private int index;
+    private UUID customerId;
+    private String reference;
+    private String status;
+    private Integer points;
+    private String message;
+}
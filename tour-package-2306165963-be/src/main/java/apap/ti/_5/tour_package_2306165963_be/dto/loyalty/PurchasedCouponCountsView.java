@@ -0,0 +1,13 @@
+package apap.ti._5.tour_package_2306165963_be.dto.loyalty;
+
+/**
+ * Spring Data projection: total, aktif, dan redeemed dihitung dalam satu aggregate query.
+ */
+public interface PurchasedCouponCountsView {
+
+    Long getTotal();
+
+    Long getActive();
+
+    Long getRedeemed();
+}
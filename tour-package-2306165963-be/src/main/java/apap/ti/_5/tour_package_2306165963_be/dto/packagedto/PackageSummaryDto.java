@@ -0,0 +1,49 @@
+package apap.ti._5.tour_package_2306165963_be.dto.packagedto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageSummaryDto {
+
+    private String id;
+    private String userId;
+    private String packageName;
+    private Integer quota;
+    private Long price;
+    private String status;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Long planCount;
+    private Long totalOrderedQuota;
+
+    // Computed fields (sama dengan ReadPackageDto supaya template list tetap jalan)
+    public boolean canBeEdited() {
+        return "Pending".equals(this.status);
+    }
+
+    public String getFormattedStartDate() {
+        if (this.startDate == null) return "-";
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM yyyy, HH:mm");
+        return this.startDate.format(formatter);
+    }
+
+    public String getFormattedEndDate() {
+        if (this.endDate == null) return "-";
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM yyyy, HH:mm");
+        return this.endDate.format(formatter);
+    }
+
+    public String getFormattedPrice() {
+        if (this.price == null) return "Rp 0";
+        return String.format("Rp %,d", this.price);
+    }
+}
@@ -0,0 +1,30 @@
+package apap.ti._5.tour_package_2306165963_be.dto.packagedto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Spring Data projection untuk list view: hanya headline fields,
+ * planCount dan totalOrderedQuota dihitung di SQL (tanpa load plan tree).
+ */
+public interface PackageSummaryView {
+
+    String getId();
+
+    String getUserId();
+
+    String getPackageName();
+
+    Integer getQuota();
+
+    Long getPrice();
+
+    String getStatus();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    Long getPlanCount();
+
+    Long getTotalOrderedQuota();
+}
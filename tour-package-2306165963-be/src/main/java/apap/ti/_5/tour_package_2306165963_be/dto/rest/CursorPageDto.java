@@ -0,0 +1,32 @@
+package apap.ti._5.tour_package_2306165963_be.dto.rest;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+
+    private List<T> items;
+
+    // Cursor untuk halaman berikutnya, null kalau sudah halaman terakhir
+    private String next;
+
+    private int size;
+
+    public <R> CursorPageDto<R> map(Function<T, R> mapper) {
+        return CursorPageDto.<R>builder()
+                .items(items.stream().map(mapper).collect(Collectors.toList()))
+                .next(next)
+                .size(size)
+                .build();
+    }
+}
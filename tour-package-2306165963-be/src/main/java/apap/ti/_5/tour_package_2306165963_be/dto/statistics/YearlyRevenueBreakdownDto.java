@@ -0,0 +1,28 @@
+package apap.ti._5.tour_package_2306165963_be.dto.statistics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class YearlyRevenueBreakdownDto {
+
+    private Integer year;
+
+    // month (1..12) -> total revenue bulan itu
+    private Map<Integer, Long> monthlyRevenue;
+
+    // activity type -> total revenue setahun
+    private Map<String, Long> revenueByActivityType;
+
+    // month (1..12) -> activity type -> revenue
+    private Map<Integer, Map<String, Long>> breakdown;
+
+    private Long totalRevenue;
+}
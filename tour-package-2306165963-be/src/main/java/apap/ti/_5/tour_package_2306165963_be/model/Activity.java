@@ -16,7 +16,13 @@ import java.time.temporal.ChronoUnit;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "activities")
+@Table(name = "activities", indexes = {
+        // Pencarian/picker: equality di type + route, lalu range di startDate
+        @Index(name = "idx_activities_type_route_start",
+                columnList = "activity_type, start_location, end_location, start_date"),
+        @Index(name = "idx_activities_type_price", columnList = "activity_type, price"),
+        @Index(name = "idx_activities_vendor", columnList = "vendor_id")
+})
 public class Activity {
     
     @Id  
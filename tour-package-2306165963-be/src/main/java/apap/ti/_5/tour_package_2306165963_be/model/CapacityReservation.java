@@ -0,0 +1,54 @@
+package apap.ti._5.tour_package_2306165963_be.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Ledger reservasi capacity Activity. Satu baris per OrderedQuantity yang sudah mengurangi capacity,
+ * unique constraint-nya mencegah package yang sama diproses dua kali secara paralel.
+ */
+@Entity
+@Table(name = "capacity_reservations",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_capacity_reservations_oq",
+                columnNames = {"ordered_quantity_id"}),
+        indexes = @Index(name = "idx_capacity_reservations_package", columnList = "package_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapacityReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "activity_id", nullable = false)
+    private String activityId;
+
+    @Column(name = "package_id")
+    private String packageId;
+
+    @Column(name = "plan_id")
+    private UUID planId;
+
+    @Column(name = "ordered_quantity_id", nullable = false)
+    private UUID orderedQuantityId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "reserved_at")
+    private LocalDateTime reservedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        reservedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,27 @@
+package apap.ti._5.tour_package_2306165963_be.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counter untuk ID / kode yang formatnya berurutan per key (misal per user).
+ * Satu baris per key, di-increment di bawah row lock jadi tidak perlu count(*) saat create.
+ */
+@Entity
+@Table(name = "id_sequences")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdSequence {
+
+    @Id
+    @Column(name = "sequence_key")
+    private String sequenceKey;
+
+    @Column(name = "last_value", nullable = false)
+    private long lastValue;
+}
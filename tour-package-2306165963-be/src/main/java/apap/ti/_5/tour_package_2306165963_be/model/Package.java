@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDateTime;
@@ -14,11 +15,16 @@ import java.util.List;
 
 @Entity
 @Table(name = "packages")
+// Plans di-join fetch lewat graph ini; orderedQuantities tiap plan di-load pakai SUBSELECT
+// (dua List sekaligus di satu join fetch akan kena MultipleBagFetchException)
+@NamedEntityGraph(name = Package.PLAN_TREE_GRAPH, attributeNodes = @NamedAttributeNode("plans"))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Package {
+
+    public static final String PLAN_TREE_GRAPH = "Package.planTree";
     
     @Id
     private String id;
@@ -50,6 +56,7 @@ public class Package {
     // ✅ HAPUS mappedBy, pakai @JoinColumn di sini (Sesuai kode awal Anda)
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JoinColumn(name = "package_id")
+    @BatchSize(size = 50)
     @Builder.Default
     private List<Plan> plans = new ArrayList<>();
     
@@ -0,0 +1,45 @@
+package apap.ti._5.tour_package_2306165963_be.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Relasi denormalisasi vendor -> package.
+ * refCount = jumlah OrderedQuantity di package tersebut yang activity-nya milik vendor ini,
+ * baris dihapus begitu refCount turun ke 0.
+ */
+@Entity
+@Table(name = "package_vendors", indexes = {
+        @Index(name = "idx_package_vendors_vendor_package", columnList = "vendor_id, package_id")
+})
+@IdClass(PackageVendor.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageVendor {
+
+    @Id
+    @Column(name = "package_id", nullable = false)
+    private String packageId;
+
+    @Id
+    @Column(name = "vendor_id", nullable = false)
+    private String vendorId;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String packageId;
+        private String vendorId;
+    }
+}
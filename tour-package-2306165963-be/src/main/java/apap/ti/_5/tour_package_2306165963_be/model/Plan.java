@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDateTime;
@@ -49,8 +51,10 @@ public class Plan {
     @Column(name = "end_location")
     private String endLocation;
     
+    // SUBSELECT: sekali akses, orderedQuantities semua plan dari query yang sama ikut ter-load
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
 @JoinColumn(name = "plan_id", referencedColumnName = "id")
+@Fetch(FetchMode.SUBSELECT)
 @Builder.Default
 private List<OrderedQuantity> orderedQuantities = new ArrayList<>();
     
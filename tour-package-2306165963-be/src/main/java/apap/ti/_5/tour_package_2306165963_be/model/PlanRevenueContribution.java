@@ -0,0 +1,47 @@
+package apap.ti._5.tour_package_2306165963_be.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Kontribusi revenue satu Plan ke satu bucket RevenueRollup.
+ * Disimpan supaya saat Plan berubah kita tahu delta yang harus dikurangi dari bucket lama.
+ */
+@Entity
+@Table(name = "plan_revenue_contributions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanRevenueContribution {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "plan_id", nullable = false)
+    private UUID planId;
+
+    @Column(name = "package_id")
+    private String packageId;
+
+    @Column(name = "revenue_year", nullable = false)
+    private int revenueYear;
+
+    @Column(name = "revenue_month", nullable = false)
+    private int revenueMonth;
+
+    @Column(name = "activity_type", nullable = false)
+    private String activityType;
+
+    @Column(name = "vendor_id", nullable = false)
+    private String vendorId;
+
+    @Column(nullable = false)
+    private Long revenue;
+}
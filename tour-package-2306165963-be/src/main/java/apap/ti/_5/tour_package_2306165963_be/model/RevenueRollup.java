@@ -0,0 +1,45 @@
+package apap.ti._5.tour_package_2306165963_be.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Pre-aggregated revenue bucket per (year, month, activity type, vendor).
+ * Dimaintain secara incremental oleh RevenueRollupService setiap kali status / harga Plan berubah,
+ * sehingga query statistik cukup membaca bucket tanpa scan seluruh OrderedQuantity.
+ */
+@Entity
+@Table(name = "revenue_rollups",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_revenue_rollups_bucket",
+                columnNames = {"revenue_year", "revenue_month", "activity_type", "vendor_id"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "revenue_year", nullable = false)
+    private int revenueYear;
+
+    @Column(name = "revenue_month", nullable = false)
+    private int revenueMonth;
+
+    @Column(name = "activity_type", nullable = false)
+    private String activityType;
+
+    @Column(name = "vendor_id", nullable = false)
+    private String vendorId;
+
+    @Column(nullable = false)
+    private Long revenue;
+}
@@ -0,0 +1,64 @@
+package apap.ti._5.tour_package_2306165963_be.model.loyalty;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Append-only riwayat perubahan poin. Saldo di loyalty_points selalu sama dengan SUM(delta) per customer;
+ * entry lama dipadatkan jadi satu baris SNAPSHOT oleh LoyaltyLedgerCompactionService.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "loyalty_points_ledger", indexes = {
+        @Index(name = "idx_loyalty_ledger_customer", columnList = "customer_id"),
+        @Index(name = "idx_loyalty_ledger_created", columnList = "created_date")
+})
+public class LoyaltyPointsLedger {
+
+    public static final String REASON_ADD_POINTS = "ADD_POINTS";
+    public static final String REASON_PURCHASE_COUPON = "PURCHASE_COUPON";
+    public static final String REASON_SNAPSHOT = "SNAPSHOT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "customer_id", nullable = false)
+    private UUID customerId;
+
+    @Column(name = "delta", nullable = false)
+    private Integer delta;
+
+    @Column(name = "reason", nullable = false)
+    private String reason;
+
+    // Idempotency key dari caller (misal reference transaksi partner)
+    @Column(name = "reference", unique = true)
+    private String reference;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @PrePersist
+    void onCreate() {
+        if (createdDate == null) {
+            createdDate = LocalDateTime.now();
+        }
+    }
+}
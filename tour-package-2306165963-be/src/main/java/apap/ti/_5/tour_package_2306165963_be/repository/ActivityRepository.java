@@ -1,14 +1,20 @@
 package apap.ti._5.tour_package_2306165963_be.repository;
 
 import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ActivityRepository extends JpaRepository<Activity, String> {
+public interface ActivityRepository extends JpaRepository<Activity, String>, JpaSpecificationExecutor<Activity> {
     
     // Find by activity type
     List<Activity> findByActivityType(String activityType);
@@ -27,4 +33,10 @@ public interface ActivityRepository extends JpaRepository<Activity, String> {
     
     // Check if activity exists by name
     boolean existsByActivityName(String activityName);
-}
\ No newline at end of file
+
+    // Lock semua activity yang akan dikurangi capacity-nya dalam satu query.
+    // ORDER BY id supaya urutan lock selalu sama antar transaksi (hindari deadlock).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Activity a WHERE a.id IN :ids ORDER BY a.id")
+    List<Activity> findAllByIdForUpdate(@Param("ids") Collection<String> ids);
+}
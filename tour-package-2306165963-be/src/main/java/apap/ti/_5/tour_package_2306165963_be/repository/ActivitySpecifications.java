@@ -0,0 +1,59 @@
+package apap.ti._5.tour_package_2306165963_be.repository;
+
+import apap.ti._5.tour_package_2306165963_be.dto.activity.ActivitySearchCriteria;
+import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Predicate untuk ActivityRepository. Urutan kolom equality (type, route) sengaja sama dengan
+ * index idx_activities_type_route_start supaya Postgres bisa pakai index tersebut.
+ */
+public final class ActivitySpecifications {
+
+    private ActivitySpecifications() {
+    }
+
+    public static Specification<Activity> matching(ActivitySearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isFalse(root.get("isDeleted")));
+
+            if (criteria == null) {
+                return cb.and(predicates.toArray(new Predicate[0]));
+            }
+            if (StringUtils.hasText(criteria.getActivityType())) {
+                predicates.add(cb.equal(root.get("activityType"), criteria.getActivityType()));
+            }
+            if (StringUtils.hasText(criteria.getStartLocation())) {
+                predicates.add(cb.equal(root.get("startLocation"), criteria.getStartLocation()));
+            }
+            if (StringUtils.hasText(criteria.getEndLocation())) {
+                predicates.add(cb.equal(root.get("endLocation"), criteria.getEndLocation()));
+            }
+            if (criteria.getStartFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("startDate"), criteria.getStartFrom()));
+            }
+            if (criteria.getEndUntil() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("endDate"), criteria.getEndUntil()));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            if (criteria.getMinCapacity() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("capacity"), criteria.getMinCapacity()));
+            }
+            if (StringUtils.hasText(criteria.getVendorId())) {
+                predicates.add(cb.equal(root.get("vendorId"), criteria.getVendorId()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package apap.ti._5.tour_package_2306165963_be.repository;
+
+import apap.ti._5.tour_package_2306165963_be.model.CapacityReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CapacityReservationRepository extends JpaRepository<CapacityReservation, UUID> {
+
+    // Find reservations of a package
+    List<CapacityReservation> findByPackageId(String packageId);
+
+    // Find reservations of an activity
+    List<CapacityReservation> findByActivityId(String activityId);
+}
@@ -0,0 +1,26 @@
+package apap.ti._5.tour_package_2306165963_be.repository;
+
+import apap.ti._5.tour_package_2306165963_be.model.IdSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IdSequenceRepository extends JpaRepository<IdSequence, String> {
+
+    // Increment atomik untuk key yang sudah punya counter; kosong kalau belum ada (perlu seed).
+    // Row lock per key ditahan sampai transaksi caller commit, key berbeda tidak saling menunggu
+    @Query(value = "UPDATE id_sequences SET last_value = last_value + 1 " +
+                   "WHERE sequence_key = :key RETURNING last_value", nativeQuery = true)
+    Optional<Long> increment(@Param("key") String key);
+
+    // Buat counter dari seed, atau increment kalau transaksi lain baru saja membuatnya: satu statement,
+    // jadi dua create pertama untuk key yang sama tetap dapat nilai berbeda
+    @Query(value = "INSERT INTO id_sequences (sequence_key, last_value) VALUES (:key, :seed + 1) " +
+                   "ON CONFLICT (sequence_key) DO UPDATE SET last_value = id_sequences.last_value + 1 " +
+                   "RETURNING last_value", nativeQuery = true)
+    long seedOrIncrement(@Param("key") String key, @Param("seed") long seed);
+}
@@ -0,0 +1,84 @@
+package apap.ti._5.tour_package_2306165963_be.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.LoyaltyPointsLedger;
+
+/**
+ * Update saldo dan ledger loyalty dalam satu JDBC batch, dipakai oleh bulk /api/add-points/batch.
+ */
+@Repository
+public class LoyaltyPointsJdbcRepository {
+
+    private static final String ENSURE_ACCOUNT_SQL =
+            "INSERT INTO loyalty_points (customer_id, points) VALUES (?, 0) ON CONFLICT (customer_id) DO NOTHING";
+    private static final String CREDIT_SQL =
+            "UPDATE loyalty_points SET points = points + ? WHERE customer_id = ?";
+    private static final String INSERT_LEDGER_SQL =
+            "INSERT INTO loyalty_points_ledger (id, customer_id, delta, reason, reference, created_date) VALUES ";
+    private static final String INSERT_LEDGER_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LEDGER_CONFLICT = " ON CONFLICT (reference) DO NOTHING RETURNING id";
+    // Entry tanpa reference tidak pernah konflik, urutannya tidak penting
+    private static final Comparator<LoyaltyPointsLedger> BY_REFERENCE =
+            Comparator.comparing(LoyaltyPointsLedger::getReference, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void ensureAccounts(Collection<UUID> customerIds) {
+        List<Object[]> args = new ArrayList<>(customerIds.size());
+        for (UUID customerId : customerIds) {
+            args.add(new Object[] { customerId });
+        }
+        jdbcTemplate.batchUpdate(ENSURE_ACCOUNT_SQL, args);
+    }
+
+    // Urutan iterasi map menentukan urutan lock baris; caller sebaiknya kirim map yang sudah terurut
+    public void creditAll(Map<UUID, Integer> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (Map.Entry<UUID, Integer> entry : deltas.entrySet()) {
+            args.add(new Object[] { entry.getValue(), entry.getKey() });
+        }
+        jdbcTemplate.batchUpdate(CREDIT_SQL, args);
+    }
+
+    /**
+     * Insert semua entry dalam satu multi-row INSERT ... ON CONFLICT (reference) DO NOTHING.
+     * Return id entry yang benar-benar masuk; entry dengan reference yang sudah ada (termasuk yang sedang
+     * di-insert transaksi lain) dilewati tanpa error. Id dan createdDate harus sudah diisi caller.
+     * Baris di-insert urut by reference, seperti creditAll: dua batch dengan reference yang beririsan
+     * menunggu entry unique index dengan urutan yang sama, jadi tidak deadlock.
+     */
+    public Set<UUID> insertLedgerEntries(List<LoyaltyPointsLedger> entries) {
+        List<LoyaltyPointsLedger> ordered = new ArrayList<>(entries);
+        ordered.sort(BY_REFERENCE);
+
+        StringBuilder sql = new StringBuilder(INSERT_LEDGER_SQL);
+        List<Object> args = new ArrayList<>(entries.size() * 6);
+        for (LoyaltyPointsLedger entry : ordered) {
+            if (!args.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_LEDGER_ROW);
+            args.add(entry.getId());
+            args.add(entry.getCustomerId());
+            args.add(entry.getDelta());
+            args.add(entry.getReason());
+            args.add(entry.getReference());
+            args.add(entry.getCreatedDate());
+        }
+        sql.append(INSERT_LEDGER_CONFLICT);
+        return new HashSet<>(jdbcTemplate.queryForList(sql.toString(), UUID.class, args.toArray()));
+    }
+}
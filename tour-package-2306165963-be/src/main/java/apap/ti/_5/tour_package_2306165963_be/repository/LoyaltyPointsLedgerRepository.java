@@ -0,0 +1,40 @@
+package apap.ti._5.tour_package_2306165963_be.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.LoyaltyPointsLedger;
+
+@Repository
+public interface LoyaltyPointsLedgerRepository extends JpaRepository<LoyaltyPointsLedger, UUID> {
+    // Insert entry kalau reference belum pernah dipakai; return 0 berarti duplikat. Transaksi lain yang sedang
+    // insert reference yang sama membuat statement ini menunggu commit-nya, jadi tidak ada check-then-act
+    @Modifying
+    @Query(value = "INSERT INTO loyalty_points_ledger (id, customer_id, delta, reason, reference, created_date) " +
+                   "VALUES (:id, :customerId, :delta, :reason, :reference, :createdDate) " +
+                   "ON CONFLICT (reference) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("customerId") UUID customerId,
+                       @Param("delta") int delta,
+                       @Param("reason") String reason,
+                       @Param("reference") String reference,
+                       @Param("createdDate") LocalDateTime createdDate);
+
+    List<LoyaltyPointsLedger> findByCustomerIdOrderByCreatedDateDesc(UUID customerId);
+
+    // Total delta per customer untuk entry yang akan dipadatkan
+    @Query("SELECT l.customerId, SUM(l.delta) FROM LoyaltyPointsLedger l " +
+           "WHERE l.createdDate < :cutoff GROUP BY l.customerId")
+    List<Object[]> sumDeltaBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM LoyaltyPointsLedger l WHERE l.createdDate < :cutoff")
+    int deleteBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -4,6 +4,9 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import apap.ti._5.tour_package_2306165963_be.model.loyalty.LoyaltyPoints;
@@ -11,4 +14,21 @@ import apap.ti._5.tour_package_2306165963_be.model.loyalty.LoyaltyPoints;
 @Repository
 public interface LoyaltyPointsRepository extends JpaRepository<LoyaltyPoints, UUID> {
     Optional<LoyaltyPoints> findByCustomerId(UUID customerId);
+
+    // Buat baris saldo kalau belum ada, aman walau dipanggil paralel
+    @Modifying
+    @Query(value = "INSERT INTO loyalty_points (customer_id, points) VALUES (:customerId, 0) " +
+                   "ON CONFLICT (customer_id) DO NOTHING", nativeQuery = true)
+    int ensureAccount(@Param("customerId") UUID customerId);
+
+    // Atomic credit, tidak ada read-modify-write di Java
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE LoyaltyPoints p SET p.points = p.points + :delta WHERE p.customerId = :customerId")
+    int credit(@Param("customerId") UUID customerId, @Param("delta") int delta);
+
+    // Guarded debit: 0 row updated berarti poin tidak cukup
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE LoyaltyPoints p SET p.points = p.points - :cost " +
+           "WHERE p.customerId = :customerId AND p.points >= :cost")
+    int debit(@Param("customerId") UUID customerId, @Param("cost") int cost);
 }
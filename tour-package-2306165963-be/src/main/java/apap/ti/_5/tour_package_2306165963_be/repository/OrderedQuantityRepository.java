@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,6 +16,9 @@ public interface OrderedQuantityRepository extends JpaRepository<OrderedQuantity
     // Find by plan ID
     List<OrderedQuantity> findByPlanId(UUID planId);
 
+    // Find by multiple plan IDs
+    List<OrderedQuantity> findByPlanIdIn(Collection<UUID> planIds);
+
     // Find by activity ID
     List<OrderedQuantity> findByActivityId(String activityId);
 
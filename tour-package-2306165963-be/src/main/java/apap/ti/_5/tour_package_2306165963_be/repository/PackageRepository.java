@@ -1,20 +1,26 @@
 package apap.ti._5.tour_package_2306165963_be.repository;
 
+import apap.ti._5.tour_package_2306165963_be.dto.packagedto.PackageSummaryView;
 import apap.ti._5.tour_package_2306165963_be.model.Package;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PackageRepository extends JpaRepository<Package, String> {
     // Find by user ID
+    @EntityGraph(Package.PLAN_TREE_GRAPH)
     List<Package> findByUserId(String userId);
     
     // Find by status
+    @EntityGraph(Package.PLAN_TREE_GRAPH)
     List<Package> findByStatus(String status);
     
     // Find by user ID and status
@@ -34,17 +40,26 @@ public interface PackageRepository extends JpaRepository<Package, String> {
     @Query("SELECT DISTINCT p FROM Package p LEFT JOIN FETCH p.plans WHERE p.id = :id")
     Optional<Package> findByIdWithPlans(@Param("id") String id);
     
+    // Full tree (package -> plans -> ordered quantities) dalam jumlah query yang tetap
+    @EntityGraph(Package.PLAN_TREE_GRAPH)
+    @Query("SELECT p FROM Package p")
+    List<Package> findAllWithPlanTree();
+
+    @EntityGraph(Package.PLAN_TREE_GRAPH)
+    @Query("SELECT p FROM Package p WHERE p.id = :id")
+    Optional<Package> findWithPlanTreeById(@Param("id") String id);
+
     // Count packages by user
     long countByUserId(String userId);
 
-    @Query("SELECT DISTINCT p FROM Package p " +
-           "JOIN p.plans plan " +
-           "JOIN plan.orderedQuantities oq " +
-           "WHERE oq.activityId IN " +
-           "(SELECT a.id FROM Activity a WHERE a.vendorId = :vendorId) " +
+    // package_vendors di-maintain oleh PackageVendorService, cukup range scan index (vendor_id, package_id)
+    @EntityGraph(Package.PLAN_TREE_GRAPH)
+    @Query("SELECT p FROM Package p " +
+           "WHERE p.id IN (SELECT pv.packageId FROM PackageVendor pv WHERE pv.vendorId = :vendorId) " +
            "AND p.isDeleted = false")
     List<Package> findPackagesByVendorId(@Param("vendorId") String vendorId);
 
+    @EntityGraph(Package.PLAN_TREE_GRAPH)
     @Query("SELECT DISTINCT p FROM Package p " +
            "WHERE p.userId = :userId " +
            "AND p.isDeleted = false")
@@ -52,4 +67,117 @@ public interface PackageRepository extends JpaRepository<Package, String> {
 
     // Count untuk generate ID (Auto-generate prefix PKG-YYYYMMDD)
     long countByIdStartingWith(String prefix);
-}
\ No newline at end of file
+
+    // Keyset pagination, urutan stabil (startDate, id). Pageable hanya dipakai sebagai LIMIT.
+    // start_date nullable: package tanpa tanggal di akhir (NULLS LAST, sama dengan urutan index ASC),
+    // cursor di bagian itu lanjut lewat query *Undated* yang hanya membandingkan id.
+    @Query("SELECT p FROM Package p ORDER BY p.startDate ASC NULLS LAST, p.id ASC")
+    List<Package> findFirstPage(Pageable pageable);
+
+    @Query("SELECT p FROM Package p " +
+           "WHERE p.startDate > :startDate OR (p.startDate = :startDate AND p.id > :id) OR p.startDate IS NULL " +
+           "ORDER BY p.startDate ASC NULLS LAST, p.id ASC")
+    List<Package> findPageAfter(@Param("startDate") LocalDateTime startDate,
+                                @Param("id") String id,
+                                Pageable pageable);
+
+    @Query("SELECT p FROM Package p WHERE p.startDate IS NULL AND p.id > :id ORDER BY p.id ASC")
+    List<Package> findUndatedPageAfter(@Param("id") String id, Pageable pageable);
+
+    @Query("SELECT p FROM Package p WHERE p.userId = :userId ORDER BY p.startDate ASC NULLS LAST, p.id ASC")
+    List<Package> findFirstPageByUserId(@Param("userId") String userId, Pageable pageable);
+
+    @Query("SELECT p FROM Package p " +
+           "WHERE p.userId = :userId " +
+           "AND (p.startDate > :startDate OR (p.startDate = :startDate AND p.id > :id) OR p.startDate IS NULL) " +
+           "ORDER BY p.startDate ASC NULLS LAST, p.id ASC")
+    List<Package> findPageByUserIdAfter(@Param("userId") String userId,
+                                        @Param("startDate") LocalDateTime startDate,
+                                        @Param("id") String id,
+                                        Pageable pageable);
+
+    @Query("SELECT p FROM Package p " +
+           "WHERE p.userId = :userId AND p.startDate IS NULL AND p.id > :id ORDER BY p.id ASC")
+    List<Package> findUndatedPageByUserIdAfter(@Param("userId") String userId,
+                                               @Param("id") String id,
+                                               Pageable pageable);
+
+    @Query("SELECT p FROM Package p WHERE p.status = :status ORDER BY p.startDate ASC NULLS LAST, p.id ASC")
+    List<Package> findFirstPageByStatus(@Param("status") String status, Pageable pageable);
+
+    @Query("SELECT p FROM Package p " +
+           "WHERE p.status = :status " +
+           "AND (p.startDate > :startDate OR (p.startDate = :startDate AND p.id > :id) OR p.startDate IS NULL) " +
+           "ORDER BY p.startDate ASC NULLS LAST, p.id ASC")
+    List<Package> findPageByStatusAfter(@Param("status") String status,
+                                        @Param("startDate") LocalDateTime startDate,
+                                        @Param("id") String id,
+                                        Pageable pageable);
+
+    @Query("SELECT p FROM Package p " +
+           "WHERE p.status = :status AND p.startDate IS NULL AND p.id > :id ORDER BY p.id ASC")
+    List<Package> findUndatedPageByStatusAfter(@Param("status") String status,
+                                               @Param("id") String id,
+                                               Pageable pageable);
+
+    // Summary projection untuk list view: agregasi plan/ordered quantity langsung di SQL
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.userId AS userId, p.packageName AS packageName, " +
+           "p.quota AS quota, p.price AS price, p.status AS status, " +
+           "p.startDate AS startDate, p.endDate AS endDate, " +
+           "COUNT(DISTINCT pl.id) AS planCount, COALESCE(SUM(oq.orderedQuota), 0) AS totalOrderedQuota " +
+           "FROM Package p " +
+           "LEFT JOIN Plan pl ON pl.packageId = p.id " +
+           "LEFT JOIN OrderedQuantity oq ON oq.planId = pl.id ";
+
+    String SUMMARY_GROUP_BY = "GROUP BY p.id, p.userId, p.packageName, p.quota, p.price, p.status, " +
+           "p.startDate, p.endDate ORDER BY p.startDate ASC NULLS LAST, p.id ASC";
+
+    // Keyset predicate yang sama dengan findPageAfter / findUndatedPageAfter
+    String SUMMARY_AFTER = "(p.startDate > :startDate OR (p.startDate = :startDate AND p.id > :id) " +
+           "OR p.startDate IS NULL) ";
+
+    String SUMMARY_UNDATED_AFTER = "p.startDate IS NULL AND p.id > :id ";
+
+    @Query(SUMMARY_SELECT + SUMMARY_GROUP_BY)
+    List<PackageSummaryView> findAllSummaries();
+
+    // Summary per halaman, dipakai REST ?view=summary supaya list tidak pernah unbounded
+    @Query(SUMMARY_SELECT + SUMMARY_GROUP_BY)
+    List<PackageSummaryView> findFirstSummaryPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE " + SUMMARY_AFTER + SUMMARY_GROUP_BY)
+    List<PackageSummaryView> findSummaryPageAfter(@Param("startDate") LocalDateTime startDate,
+                                                  @Param("id") String id,
+                                                  Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE " + SUMMARY_UNDATED_AFTER + SUMMARY_GROUP_BY)
+    List<PackageSummaryView> findUndatedSummaryPageAfter(@Param("id") String id, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.userId = :userId " + SUMMARY_GROUP_BY)
+    List<PackageSummaryView> findFirstSummaryPageByUserId(@Param("userId") String userId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.userId = :userId AND " + SUMMARY_AFTER + SUMMARY_GROUP_BY)
+    List<PackageSummaryView> findSummaryPageByUserIdAfter(@Param("userId") String userId,
+                                                          @Param("startDate") LocalDateTime startDate,
+                                                          @Param("id") String id,
+                                                          Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.userId = :userId AND " + SUMMARY_UNDATED_AFTER + SUMMARY_GROUP_BY)
+    List<PackageSummaryView> findUndatedSummaryPageByUserIdAfter(@Param("userId") String userId,
+                                                                 @Param("id") String id,
+                                                                 Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status " + SUMMARY_GROUP_BY)
+    List<PackageSummaryView> findFirstSummaryPageByStatus(@Param("status") String status, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status AND " + SUMMARY_AFTER + SUMMARY_GROUP_BY)
+    List<PackageSummaryView> findSummaryPageByStatusAfter(@Param("status") String status,
+                                                          @Param("startDate") LocalDateTime startDate,
+                                                          @Param("id") String id,
+                                                          Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status AND " + SUMMARY_UNDATED_AFTER + SUMMARY_GROUP_BY)
+    List<PackageSummaryView> findUndatedSummaryPageByStatusAfter(@Param("status") String status,
+                                                                 @Param("id") String id,
+                                                                 Pageable pageable);
+}
@@ -0,0 +1,37 @@
+package apap.ti._5.tour_package_2306165963_be.repository;
+
+import apap.ti._5.tour_package_2306165963_be.model.PackageVendor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PackageVendorRepository extends JpaRepository<PackageVendor, PackageVendor.Key> {
+
+    // Lookup PK (package_id, vendor_id), dipakai untuk RBAC vendor
+    boolean existsByPackageIdAndVendorId(String packageId, String vendorId);
+
+    // Upsert counter, aman walau dua request menambah activity vendor yang sama bersamaan
+    @Modifying
+    @Query(value = "INSERT INTO package_vendors (package_id, vendor_id, ref_count) " +
+                   "VALUES (:packageId, :vendorId, :count) " +
+                   "ON CONFLICT (package_id, vendor_id) " +
+                   "DO UPDATE SET ref_count = package_vendors.ref_count + EXCLUDED.ref_count", nativeQuery = true)
+    int increment(@Param("packageId") String packageId,
+                  @Param("vendorId") String vendorId,
+                  @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE PackageVendor pv SET pv.refCount = pv.refCount - :count " +
+           "WHERE pv.packageId = :packageId AND pv.vendorId = :vendorId")
+    int decrement(@Param("packageId") String packageId,
+                  @Param("vendorId") String vendorId,
+                  @Param("count") int count);
+
+    @Modifying
+    @Query("DELETE FROM PackageVendor pv " +
+           "WHERE pv.packageId = :packageId AND pv.vendorId = :vendorId AND pv.refCount <= 0")
+    int deleteIfUnreferenced(@Param("packageId") String packageId, @Param("vendorId") String vendorId);
+}
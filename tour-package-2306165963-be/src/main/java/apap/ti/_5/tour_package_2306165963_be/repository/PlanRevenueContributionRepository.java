@@ -0,0 +1,18 @@
+package apap.ti._5.tour_package_2306165963_be.repository;
+
+import apap.ti._5.tour_package_2306165963_be.model.PlanRevenueContribution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PlanRevenueContributionRepository extends JpaRepository<PlanRevenueContribution, UUID> {
+
+    // Find contributions of a plan
+    List<PlanRevenueContribution> findByPlanId(UUID planId);
+
+    // Delete contributions of a plan
+    void deleteByPlanId(UUID planId);
+}
@@ -5,8 +5,12 @@ import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.PurchasedCouponCountsView;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.PurchasedCouponResponseDTO;
 import apap.ti._5.tour_package_2306165963_be.model.loyalty.PurchasedCoupon;
 
 @Repository
@@ -24,4 +28,22 @@ public interface PurchasedCouponRepository extends JpaRepository<PurchasedCoupon
     long countByCustomerIdAndUsedDateIsNotNull(UUID customerId);
 
     boolean existsByCode(String code);
-}
\ No newline at end of file
+
+    // Purchased coupon + definisi coupon-nya dalam satu join, bukan findById per baris
+    @Query("SELECT new apap.ti._5.tour_package_2306165963_be.dto.loyalty.PurchasedCouponResponseDTO(" +
+           "p.id, p.code, p.couponId, c.name, c.points, c.percentOff, p.customerId, p.purchasedDate, p.usedDate) " +
+           "FROM PurchasedCoupon p LEFT JOIN Coupon c ON c.id = p.couponId " +
+           "WHERE p.customerId = :customerId ORDER BY p.purchasedDate DESC")
+    List<PurchasedCouponResponseDTO> findDetailsByCustomerId(@Param("customerId") UUID customerId);
+
+    // Conditional SUM: ketiga counter dashboard dalam satu query
+    @Query("SELECT COUNT(p) AS total, " +
+           "COALESCE(SUM(CASE WHEN p.usedDate IS NULL THEN 1 ELSE 0 END), 0) AS active, " +
+           "COALESCE(SUM(CASE WHEN p.usedDate IS NOT NULL THEN 1 ELSE 0 END), 0) AS redeemed " +
+           "FROM PurchasedCoupon p WHERE p.customerId = :customerId")
+    PurchasedCouponCountsView countsByCustomerId(@Param("customerId") UUID customerId);
+
+    // Dipakai sekali untuk seed counter kode per prefix (COUPON-USER)
+    @Query("SELECT p.code FROM PurchasedCoupon p WHERE p.code LIKE CONCAT(:prefix, '-%')")
+    List<String> findCodesByPrefix(@Param("prefix") String prefix);
+}
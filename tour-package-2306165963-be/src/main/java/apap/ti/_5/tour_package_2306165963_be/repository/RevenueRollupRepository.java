@@ -0,0 +1,44 @@
+package apap.ti._5.tour_package_2306165963_be.repository;
+
+import apap.ti._5.tour_package_2306165963_be.model.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, UUID> {
+
+    // Upsert delta ke bucket dalam satu statement: insert pertama dan increment berikutnya sama-sama atomic,
+    // jadi dua transaksi yang mengisi bucket baru bersamaan tidak bentrok di uk_revenue_rollups_bucket
+    @Modifying
+    @Query(value = "INSERT INTO revenue_rollups (id, revenue_year, revenue_month, activity_type, vendor_id, revenue) " +
+                   "VALUES (:id, :year, :month, :activityType, :vendorId, :delta) " +
+                   "ON CONFLICT (revenue_year, revenue_month, activity_type, vendor_id) " +
+                   "DO UPDATE SET revenue = revenue_rollups.revenue + EXCLUDED.revenue", nativeQuery = true)
+    int addToBucket(@Param("id") UUID id,
+                    @Param("year") int year,
+                    @Param("month") int month,
+                    @Param("activityType") String activityType,
+                    @Param("vendorId") String vendorId,
+                    @Param("delta") long delta);
+
+    // Revenue per activity type untuk satu tahun (semua bulan)
+    @Query("SELECT r.activityType, SUM(r.revenue) FROM RevenueRollup r " +
+           "WHERE r.revenueYear = :year GROUP BY r.activityType")
+    List<Object[]> sumRevenueByActivityType(@Param("year") int year);
+
+    // Revenue per activity type untuk satu bulan
+    @Query("SELECT r.activityType, SUM(r.revenue) FROM RevenueRollup r " +
+           "WHERE r.revenueYear = :year AND r.revenueMonth = :month GROUP BY r.activityType")
+    List<Object[]> sumRevenueByActivityTypeAndMonth(@Param("year") int year, @Param("month") int month);
+
+    // Matrix (bulan x activity type) untuk satu tahun dalam satu query
+    @Query("SELECT r.revenueMonth, r.activityType, SUM(r.revenue) FROM RevenueRollup r " +
+           "WHERE r.revenueYear = :year GROUP BY r.revenueMonth, r.activityType")
+    List<Object[]> sumRevenueByMonthAndActivityType(@Param("year") int year);
+}
@@ -5,12 +5,14 @@ import apap.ti._5.tour_package_2306165963_be.dto.DtoMapper;
 import apap.ti._5.tour_package_2306165963_be.dto.activity.*;
 import apap.ti._5.tour_package_2306165963_be.model.Activity;
 import apap.ti._5.tour_package_2306165963_be.service.ActivityService;
-import apap.ti._5.tour_package_2306165963_be.security.jwt.JwtUtils;
+import apap.ti._5.tour_package_2306165963_be.security.jwt.JwtPrincipal;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Date;
@@ -29,9 +31,6 @@ public class ActivityRestController {
     @Autowired
     private DtoMapper dtoMapper;
 
-    @Autowired
-    private JwtUtils jwtUtils;
-
     // GET ALL - Semua authenticated user bisa lihat activities
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor', 'FlightAirline', 'AccomodationOwner', 'RentalVendor')")
     @GetMapping
@@ -56,6 +55,44 @@ public class ActivityRestController {
         }
     }
 
+    // SEARCH - filter gabungan + paging/sort, dijalankan di database (lihat ActivitySpecifications)
+    @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor', 'FlightAirline', 'AccomodationOwner', 'RentalVendor')")
+    @GetMapping("/search")
+    public ResponseEntity<?> searchActivities(@ModelAttribute ActivitySearchCriteria criteria,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
+        try {
+            Page<Activity> result = activityService.searchActivities(criteria, page, size, sort);
+            List<ReadActivityDto> activities = result.getContent()
+                    .stream()
+                    .map(dtoMapper::toReadDto)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(Map.of(
+                    "status", HttpStatus.OK.value(),
+                    "message", "Berhasil mencari activities",
+                    "timestamp", new Date(),
+                    "data", activities,
+                    "page", result.getNumber(),
+                    "size", result.getSize(),
+                    "totalElements", result.getTotalElements(),
+                    "totalPages", result.getTotalPages()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of(
+                            "status", HttpStatus.BAD_REQUEST.value(),
+                            "message", e.getMessage(),
+                            "timestamp", new Date()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of(
+                            "status", HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                            "message", "Error: " + e.getMessage(),
+                            "timestamp", new Date()));
+        }
+    }
+
     // GET BY ID
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor', 'FlightAirline', 'AccomodationOwner', 'RentalVendor')")
     @GetMapping("/{id}")
@@ -89,10 +126,9 @@ public class ActivityRestController {
     @PreAuthorize("hasAnyAuthority('Superadmin', 'TourPackageVendor', 'FlightAirline', 'AccomodationOwner', 'RentalVendor')")
     @PostMapping
     public ResponseEntity<?> createActivity(@Valid @RequestBody CreateActivityDto dto,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String vendorId = jwtUtils.getIdFromJwtToken(jwt);
+            String vendorId = principal.getId();
 
             Activity activity = dtoMapper.toEntity(dto);
             // Set vendor ID from token for ownership tracking
@@ -120,11 +156,10 @@ public class ActivityRestController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateActivity(@PathVariable String id,
             @Valid @RequestBody UpdateActivityDto dto,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String vendorId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String vendorId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Activity> activityOpt = activityService.getActivityById(id);
 
@@ -169,11 +204,10 @@ public class ActivityRestController {
     @PreAuthorize("hasAnyAuthority('Superadmin', 'TourPackageVendor', 'FlightAirline', 'AccomodationOwner', 'RentalVendor')")
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteActivity(@PathVariable String id,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String vendorId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String vendorId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Activity> activityOpt = activityService.getActivityById(id);
 
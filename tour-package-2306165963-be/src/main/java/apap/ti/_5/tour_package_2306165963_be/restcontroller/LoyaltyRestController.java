@@ -19,6 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import apap.ti._5.tour_package_2306165963_be.dto.coupon.AddPointsRequestDto;
 import apap.ti._5.tour_package_2306165963_be.dto.coupon.CouponRequestDto;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.AddPointsBatchItemResultDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.CouponResponseDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.LoyaltyDashboardResponseDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.LoyaltyPointsResponseDTO;
@@ -191,6 +192,35 @@ public class LoyaltyRestController {
         }
     }
 
+    // Bulk variant untuk partner: delta di-coalesce per customer dan diterapkan dalam satu batch
+    @PostMapping("/add-points/batch")
+    public ResponseEntity<BaseResponseDTO<List<AddPointsBatchItemResultDTO>>> addPointsBatch(
+            @RequestBody List<AddPointsRequestDto> requests) {
+
+        var baseResponseDTO = new BaseResponseDTO<List<AddPointsBatchItemResultDTO>>();
+
+        try {
+            List<AddPointsBatchItemResultDTO> results = loyaltyService.addPointsBatch(requests);
+
+            baseResponseDTO.setStatus(HttpStatus.OK.value());
+            baseResponseDTO.setData(results);
+            baseResponseDTO.setMessage("Batch processed successfully");
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.OK);
+
+        } catch (IllegalArgumentException e) {
+            baseResponseDTO.setStatus(HttpStatus.BAD_REQUEST.value());
+            baseResponseDTO.setMessage(e.getMessage());
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            baseResponseDTO.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            baseResponseDTO.setMessage("Failed to add points: " + e.getMessage());
+            baseResponseDTO.setTimestamp(new Date());
+            return new ResponseEntity<>(baseResponseDTO, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @GetMapping("/loyalty/balance/{userId}")
     @PreAuthorize("hasAnyAuthority('Customer', 'Superadmin')")
     public ResponseEntity<BaseResponseDTO<LoyaltyPointsResponseDTO>> getBalance(@PathVariable UUID userId) {
@@ -8,12 +8,13 @@ import apap.ti._5.tour_package_2306165963_be.model.Plan;
 import apap.ti._5.tour_package_2306165963_be.service.OrderedQuantityService;
 import apap.ti._5.tour_package_2306165963_be.service.PackageService;
 import apap.ti._5.tour_package_2306165963_be.service.PlanService;
-import apap.ti._5.tour_package_2306165963_be.security.jwt.JwtUtils;
+import apap.ti._5.tour_package_2306165963_be.security.jwt.JwtPrincipal;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Date;
@@ -36,18 +37,14 @@ public class OrderedQuantityRestController {
     @Autowired
     private DtoMapper dtoMapper;
 
-    @Autowired
-    private JwtUtils jwtUtils;
-
     // GET OrderedQuantity by ID - with ownership check (PBI-FE-T18)
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @GetMapping("/ordered-quantities/{id}")
     public ResponseEntity<?> getById(@PathVariable String id,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<OrderedQuantity> oqOpt = orderedQuantityService.getOrderedQuantityById(id);
 
@@ -113,11 +110,10 @@ public class OrderedQuantityRestController {
     public ResponseEntity<?> create(
             @PathVariable String planId,
             @Valid @RequestBody CreateOrderedQuantityDto dto,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Plan> planOpt = planService.getPlanById(planId);
 
@@ -152,7 +148,7 @@ public class OrderedQuantityRestController {
             }
 
             OrderedQuantity oq = dtoMapper.toEntity(dto);
-            OrderedQuantity saved = orderedQuantityService.createOrderedQuantity(planId, oq);
+            OrderedQuantity saved = orderedQuantityService.createOrderedQuantity(plan, pkg, oq);
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(Map.of(
@@ -175,11 +171,10 @@ public class OrderedQuantityRestController {
     public ResponseEntity<?> update(
             @PathVariable String id,
             @RequestParam("newQuota") Integer newQuota,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<OrderedQuantity> oqOpt = orderedQuantityService.getOrderedQuantityById(id);
 
@@ -224,7 +219,7 @@ public class OrderedQuantityRestController {
                                 "timestamp", new Date()));
             }
 
-            OrderedQuantity updated = orderedQuantityService.updateOrderedQuantity(id, newQuota);
+            OrderedQuantity updated = orderedQuantityService.updateOrderedQuantity(oq, plan, pkg, newQuota);
 
             return ResponseEntity.ok(Map.of(
                     "status", HttpStatus.OK.value(),
@@ -244,11 +239,10 @@ public class OrderedQuantityRestController {
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @DeleteMapping("/ordered-quantities/{id}")
     public ResponseEntity<?> delete(@PathVariable String id,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<OrderedQuantity> oqOpt = orderedQuantityService.getOrderedQuantityById(id);
 
@@ -293,7 +287,7 @@ public class OrderedQuantityRestController {
                                 "timestamp", new Date()));
             }
 
-            boolean deleted = orderedQuantityService.deleteOrderedQuantity(id);
+            boolean deleted = orderedQuantityService.deleteOrderedQuantity(oq, plan, pkg);
 
             if (deleted) {
                 return ResponseEntity.ok(Map.of(
@@ -3,17 +3,20 @@ package apap.ti._5.tour_package_2306165963_be.restcontroller;
 
 import apap.ti._5.tour_package_2306165963_be.dto.DtoMapper;
 import apap.ti._5.tour_package_2306165963_be.dto.packagedto.*;
+import apap.ti._5.tour_package_2306165963_be.dto.rest.CursorPageDto;
 import apap.ti._5.tour_package_2306165963_be.model.Package;
 import apap.ti._5.tour_package_2306165963_be.service.PackageService;
-import apap.ti._5.tour_package_2306165963_be.security.jwt.JwtUtils;
+import apap.ti._5.tour_package_2306165963_be.security.jwt.JwtPrincipal;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -29,21 +32,40 @@ public class PackageRestController {
     @Autowired
     private DtoMapper dtoMapper;
 
-    @Autowired
-    private JwtUtils jwtUtils;
-
     // GET ALL - Superadmin, Customer, TourPackageVendor dapat akses
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @GetMapping
-    public ResponseEntity<?> getAllPackages(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getAllPackages(@AuthenticationPrincipal JwtPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
+            boolean seeAll = "Superadmin".equals(role) || "TourPackageVendor".equals(role);
+
+            // ?view=summary: headline fields + planCount/totalOrderedQuota, tanpa plan tree.
+            // Selalu keyset page (default DEFAULT_PAGE_SIZE), cursor/size opsional
+            if (isSummaryView(view)) {
+                CursorPageDto<PackageSummaryDto> page = (seeAll
+                        ? packageService.getPackageSummariesPage(cursor, size)
+                        : packageService.getPackageSummariesPageByUserId(userId, cursor, size))
+                        .map(dtoMapper::toSummaryDto);
+                return ResponseEntity.ok(pageResponse("Berhasil mendapatkan daftar packages", page));
+            }
+
+            // Pagination aktif kalau client kirim cursor atau size
+            if (cursor != null || size != null) {
+                CursorPageDto<ReadPackageDto> page = (seeAll
+                        ? packageService.getPackagesPage(cursor, size)
+                        : packageService.getPackagesPageByUserId(userId, cursor, size))
+                        .map(dtoMapper::toReadDto);
+                return ResponseEntity.ok(pageResponse("Berhasil mendapatkan daftar packages", page));
+            }
 
             List<ReadPackageDto> packages;
 
-            if ("Superadmin".equals(role) || "TourPackageVendor".equals(role)) {
+            if (seeAll) {
                 // Superadmin dan Vendor bisa lihat semua
                 packages = packageService.getAllPackages()
                         .stream()
@@ -62,6 +84,12 @@ public class PackageRestController {
                     "message", "Berhasil mendapatkan daftar packages",
                     "timestamp", new Date(),
                     "data", packages));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of(
+                            "status", HttpStatus.BAD_REQUEST.value(),
+                            "message", "Error: " + e.getMessage(),
+                            "timestamp", new Date()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of(
@@ -75,11 +103,10 @@ public class PackageRestController {
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @GetMapping("/{id}")
     public ResponseEntity<?> getPackageById(@PathVariable String id,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Package> pkgOpt = packageService.getPackageById(id);
 
@@ -124,10 +151,9 @@ public class PackageRestController {
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @PostMapping
     public ResponseEntity<?> createPackage(@Valid @RequestBody CreatePackageDto dto,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
+            String userId = principal.getId();
 
             // Set userId from token
             dto.setUserId(userId);
@@ -155,11 +181,10 @@ public class PackageRestController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updatePackage(@PathVariable String id,
             @Valid @RequestBody UpdatePackageDto dto,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Package> pkgOpt = packageService.getPackageById(id);
 
@@ -203,11 +228,10 @@ public class PackageRestController {
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deletePackage(@PathVariable String id,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Package> pkgOpt = packageService.getPackageById(id);
 
@@ -249,11 +273,10 @@ public class PackageRestController {
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @PostMapping("/{id}/process")
     public ResponseEntity<?> processPackage(@PathVariable String id,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Package> pkgOpt = packageService.getPackageById(id);
 
@@ -294,8 +317,24 @@ public class PackageRestController {
     // GET BY USER - Get packages by specific user
     @PreAuthorize("hasAuthority('Superadmin')")
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getPackagesByUser(@PathVariable String userId) {
+    public ResponseEntity<?> getPackagesByUser(@PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
         try {
+            if (isSummaryView(view)) {
+                CursorPageDto<PackageSummaryDto> page = packageService
+                        .getPackageSummariesPageByUserId(userId, cursor, size)
+                        .map(dtoMapper::toSummaryDto);
+                return ResponseEntity.ok(pageResponse("Berhasil mendapatkan packages by user", page));
+            }
+
+            if (cursor != null || size != null) {
+                CursorPageDto<ReadPackageDto> page = packageService.getPackagesPageByUserId(userId, cursor, size)
+                        .map(dtoMapper::toReadDto);
+                return ResponseEntity.ok(pageResponse("Berhasil mendapatkan packages by user", page));
+            }
+
             List<ReadPackageDto> packages = packageService.getPackagesByUserId(userId)
                     .stream()
                     .map(dtoMapper::toReadDto)
@@ -306,6 +345,12 @@ public class PackageRestController {
                     "message", "Berhasil mendapatkan packages by user",
                     "timestamp", new Date(),
                     "data", packages));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of(
+                            "status", HttpStatus.BAD_REQUEST.value(),
+                            "message", "Error: " + e.getMessage(),
+                            "timestamp", new Date()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of(
@@ -318,8 +363,24 @@ public class PackageRestController {
     // GET BY STATUS - Filter by status
     @PreAuthorize("hasAnyAuthority('Superadmin', 'TourPackageVendor')")
     @GetMapping("/status/{status}")
-    public ResponseEntity<?> getPackagesByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getPackagesByStatus(@PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
         try {
+            if (isSummaryView(view)) {
+                CursorPageDto<PackageSummaryDto> page = packageService
+                        .getPackageSummariesPageByStatus(status, cursor, size)
+                        .map(dtoMapper::toSummaryDto);
+                return ResponseEntity.ok(pageResponse("Berhasil mendapatkan packages by status", page));
+            }
+
+            if (cursor != null || size != null) {
+                CursorPageDto<ReadPackageDto> page = packageService.getPackagesPageByStatus(status, cursor, size)
+                        .map(dtoMapper::toReadDto);
+                return ResponseEntity.ok(pageResponse("Berhasil mendapatkan packages by status", page));
+            }
+
             List<ReadPackageDto> packages = packageService.getPackagesByStatus(status)
                     .stream()
                     .map(dtoMapper::toReadDto)
@@ -330,6 +391,12 @@ public class PackageRestController {
                     "message", "Berhasil mendapatkan packages by status",
                     "timestamp", new Date(),
                     "data", packages));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of(
+                            "status", HttpStatus.BAD_REQUEST.value(),
+                            "message", "Error: " + e.getMessage(),
+                            "timestamp", new Date()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of(
@@ -338,4 +405,20 @@ public class PackageRestController {
                             "timestamp", new Date()));
         }
     }
-}
\ No newline at end of file
+
+    private boolean isSummaryView(String view) {
+        return "summary".equalsIgnoreCase(view);
+    }
+
+    // Helper: response untuk keyset page, "next" boleh null jadi tidak pakai Map.of
+    private Map<String, Object> pageResponse(String message, CursorPageDto<?> page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", HttpStatus.OK.value());
+        response.put("message", message);
+        response.put("timestamp", new Date());
+        response.put("data", page.getItems());
+        response.put("size", page.getSize());
+        response.put("next", page.getNext());
+        return response;
+    }
+}
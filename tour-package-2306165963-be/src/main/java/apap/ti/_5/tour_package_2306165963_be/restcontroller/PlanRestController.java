@@ -1,22 +1,27 @@
 package apap.ti._5.tour_package_2306165963_be.restcontroller;
 
 import apap.ti._5.tour_package_2306165963_be.dto.DtoMapper;
+import apap.ti._5.tour_package_2306165963_be.dto.activity.CompatibleActivityDto;
 import apap.ti._5.tour_package_2306165963_be.dto.plan.*;
 import apap.ti._5.tour_package_2306165963_be.model.Package;
 import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.service.ActivityIndex;
 import apap.ti._5.tour_package_2306165963_be.service.PackageService;
 import apap.ti._5.tour_package_2306165963_be.service.PlanService;
-import apap.ti._5.tour_package_2306165963_be.security.jwt.JwtUtils;
+import apap.ti._5.tour_package_2306165963_be.security.jwt.JwtPrincipal;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -29,20 +34,19 @@ public class PlanRestController {
     private PackageService packageService;
 
     @Autowired
-    private DtoMapper dtoMapper;
+    private ActivityIndex activityIndex;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private DtoMapper dtoMapper;
 
     // GET Plan by ID - with ownership check (PBI-FE-T14)
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @GetMapping("/plans/{id}")
     public ResponseEntity<?> getPlanById(@PathVariable String id,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Plan> planOpt = planService.getPlanById(id);
 
@@ -91,17 +95,75 @@ public class PlanRestController {
         }
     }
 
+    // GET activities yang cocok dengan plan (type, route, jadwal di dalam plan), dari ActivityIndex
+    @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
+    @GetMapping("/plans/{id}/compatible-activities")
+    public ResponseEntity<?> getCompatibleActivities(@PathVariable String id,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        try {
+            String userId = principal.getId();
+            String role = principal.getRole();
+
+            Optional<Plan> planOpt = planService.getPlanById(id);
+
+            if (planOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of(
+                                "status", HttpStatus.NOT_FOUND.value(),
+                                "message", "Plan not found",
+                                "timestamp", new Date()));
+            }
+
+            Plan plan = planOpt.get();
+            Optional<Package> pkgOpt = packageService.getPackageById(plan.getPackageId());
+
+            if (pkgOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of(
+                                "status", HttpStatus.NOT_FOUND.value(),
+                                "message", "Package not found",
+                                "timestamp", new Date()));
+            }
+
+            // RBAC Check - sama dengan GET plan
+            if (!("Superadmin".equals(role) || "TourPackageVendor".equals(role) ||
+                    pkgOpt.get().getUserId().equals(userId))) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of(
+                                "status", HttpStatus.FORBIDDEN.value(),
+                                "message", "You don't have access to this plan",
+                                "timestamp", new Date()));
+            }
+
+            List<CompatibleActivityDto> activities = activityIndex.findCompatible(plan)
+                    .stream()
+                    .map(dtoMapper::toCompatibleDto)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(Map.of(
+                    "status", HttpStatus.OK.value(),
+                    "message", "Compatible activities retrieved successfully",
+                    "timestamp", new Date(),
+                    "data", activities));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of(
+                            "status", HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                            "message", "Error: " + e.getMessage(),
+                            "timestamp", new Date()));
+        }
+    }
+
     // CREATE Plan - with ownership check (PBI-FE-T15)
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @PostMapping("/packages/{packageId}/plans")
     public ResponseEntity<?> createPlan(
             @PathVariable String packageId,
             @Valid @RequestBody CreatePlanDto dto,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Package> pkgOpt = packageService.getPackageById(packageId);
 
@@ -125,7 +187,7 @@ public class PlanRestController {
             }
 
             Plan plan = dtoMapper.toEntity(dto);
-            Plan saved = planService.createPlan(packageId, plan);
+            Plan saved = planService.createPlan(pkg, plan);
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(Map.of(
@@ -148,11 +210,10 @@ public class PlanRestController {
     public ResponseEntity<?> updatePlan(
             @PathVariable String id,
             @Valid @RequestBody UpdatePlanDto dto,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Plan> planOpt = planService.getPlanById(id);
 
@@ -188,7 +249,7 @@ public class PlanRestController {
 
             dto.setId(id);
             Plan plan = dtoMapper.toEntity(dto);
-            Plan updated = planService.updatePlan(plan);
+            Plan updated = planService.updatePlan(existingPlan, pkg, plan);
 
             return ResponseEntity.ok(Map.of(
                     "status", HttpStatus.OK.value(),
@@ -208,11 +269,10 @@ public class PlanRestController {
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @DeleteMapping("/plans/{id}")
     public ResponseEntity<?> deletePlan(@PathVariable String id,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Plan> planOpt = planService.getPlanById(id);
 
@@ -246,7 +306,7 @@ public class PlanRestController {
                                 "timestamp", new Date()));
             }
 
-            planService.deletePlan(id);
+            planService.deletePlan(plan, pkg);
 
             return ResponseEntity.ok(Map.of(
                     "status", HttpStatus.OK.value(),
@@ -271,11 +331,10 @@ public class PlanRestController {
     @PreAuthorize("hasAnyAuthority('Superadmin', 'Customer', 'TourPackageVendor')")
     @PostMapping("/plans/{id}/process")
     public ResponseEntity<?> processPlan(@PathVariable String id,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
         try {
-            String jwt = token.replace("Bearer ", "");
-            String userId = jwtUtils.getIdFromJwtToken(jwt);
-            String role = jwtUtils.getRoleFromJwtToken(jwt);
+            String userId = principal.getId();
+            String role = principal.getRole();
 
             Optional<Plan> planOpt = planService.getPlanById(id);
 
@@ -1,5 +1,6 @@
 package apap.ti._5.tour_package_2306165963_be.restcontroller;
 
+import apap.ti._5.tour_package_2306165963_be.dto.statistics.YearlyRevenueBreakdownDto;
 import apap.ti._5.tour_package_2306165963_be.service.StatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -65,25 +66,15 @@ public class StatisticsRestController {
     @GetMapping("/revenue/yearly/{year}")
     public ResponseEntity<Map<String, Object>> getYearlyRevenue(@PathVariable Integer year) {
 
+        // Monthly totals dan breakdown per activity type dari satu query
+        YearlyRevenueBreakdownDto yearly = statisticsService.getYearlyRevenueBreakdown(year);
+
         Map<String, Object> response = new HashMap<>();
         response.put("year", year);
-
-        Map<Integer, Long> monthlyRevenue = new HashMap<>();
-
-        for (int month = 1; month <= 12; month++) {
-            Map<String, Long> revenueByType = statisticsService.getRevenueByActivityType(year, month);
-            long monthTotal = revenueByType.values().stream()
-                    .mapToLong(Long::longValue)
-                    .sum();
-            monthlyRevenue.put(month, monthTotal);
-        }
-
-        response.put("monthlyRevenue", monthlyRevenue);
-
-        long yearTotal = monthlyRevenue.values().stream()
-                .mapToLong(Long::longValue)
-                .sum();
-        response.put("totalRevenue", yearTotal);
+        response.put("monthlyRevenue", yearly.getMonthlyRevenue());
+        response.put("revenueByActivityType", yearly.getRevenueByActivityType());
+        response.put("breakdown", yearly.getBreakdown());
+        response.put("totalRevenue", yearly.getTotalRevenue());
 
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,29 @@
+package apap.ti._5.tour_package_2306165963_be.security.jwt;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Hasil parse JWT yang disimpan di SecurityContext.
+ * Inject ke controller dengan {@code @AuthenticationPrincipal JwtPrincipal principal}.
+ */
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class JwtPrincipal implements AuthenticatedPrincipal {
+
+    private final String id;
+    private final String subject;
+    private final String email;
+    private final String role;
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+}
@@ -12,8 +12,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -36,16 +34,14 @@ public class JwtTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
-                String role = jwtUtils.getRoleFromJwtToken(jwt);
-
+            // Token cukup di-parse sekali, controller pakai @AuthenticationPrincipal
+            JwtPrincipal principal = jwt != null ? jwtUtils.resolvePrincipal(jwt) : null;
+            if (principal != null) {
                 Set<GrantedAuthority> grantedAuthoritySet = new HashSet<>();
-                grantedAuthoritySet.add(new SimpleGrantedAuthority(role));
+                grantedAuthoritySet.add(new SimpleGrantedAuthority(principal.getRole()));
 
-                UserDetails userDetails = new User(username, "", grantedAuthoritySet);
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        principal, null, grantedAuthoritySet);
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
@@ -1,5 +1,16 @@
 package apap.ti._5.tour_package_2306165963_be.security.jwt;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.crypto.SecretKey;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,6 +25,7 @@ import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtUtils {
@@ -25,34 +37,66 @@ public class JwtUtils {
     @Value("${tour_package.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    // Jumlah maksimum token yang claims-nya di-cache
+    @Value("${tour_package.app.jwtCacheSize:1024}")
+    private int jwtCacheSize;
+
+    // Key dan parser thread-safe, cukup dibuat sekali
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // sha256(token) -> claims yang sudah diverifikasi, access-ordered untuk LRU
+    private final LinkedHashMap<String, CachedClaims> claimsCache = new LinkedHashMap<>(16, 0.75f, true);
+    // Lock, bukan synchronized, supaya virtual thread tidak ter-pin ke carrier thread (Java 21)
+    private final ReentrantLock cacheLock = new ReentrantLock();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
     public String getUsernameFromJwtToken(String token) {
-        JwtParser jwtParser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes())).build();
-        Claims claims = jwtParser.parse(token).accept(Jws.CLAIMS).getPayload();
-        return claims.getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public String getIdFromJwtToken(String token) {
-        JwtParser jwtParser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes())).build();
-        Claims claims = jwtParser.parse(token).accept(Jws.CLAIMS).getPayload();
-        return claims.get("id", String.class);
+        return parseClaims(token).get("id", String.class);
     }
 
     public String getEmailFromJwtToken(String token) {
-        JwtParser jwtParser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes())).build();
-        Claims claims = jwtParser.parse(token).accept(Jws.CLAIMS).getPayload();
-        return claims.get("email", String.class);
+        return parseClaims(token).get("email", String.class);
     }
 
     public String getRoleFromJwtToken(String token) {
-        JwtParser jwtParser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes())).build();
-        Claims claims = jwtParser.parse(token).accept(Jws.CLAIMS).getPayload();
-        return claims.get("role", String.class);
+        return parseClaims(token).get("role", String.class);
+    }
+
+    /**
+     * Parse and verify the token once and build the principal.
+     * Returns null when the token is invalid, same semantics as validateJwtToken.
+     */
+    public JwtPrincipal resolvePrincipal(String token) {
+        Claims claims = tryParseClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        return JwtPrincipal.builder()
+                .id(claims.get("id", String.class))
+                .subject(claims.getSubject())
+                .email(claims.get("email", String.class))
+                .role(claims.get("role", String.class))
+                .build();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return tryParseClaims(authToken) != null;
+    }
+
+    // Helper methods
+    private Claims tryParseClaims(String token) {
         try {
-            Jwts.parser().verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes())).build().parse(authToken);
-            return true;
+            return parseClaims(token);
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
@@ -64,6 +108,68 @@ public class JwtUtils {
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    private Claims parseClaims(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+
+        String key = hash(token);
+        long now = System.currentTimeMillis();
+
+        cacheLock.lock();
+        try {
+            CachedClaims cached = claimsCache.get(key);
+            if (cached != null) {
+                if (cached.expiresAt() > now) {
+                    return cached.claims();
+                }
+                claimsCache.remove(key);
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+
+        // Cache miss: verifikasi signature, hasilnya disimpan sampai token expired
+        Claims claims = jwtParser.parse(token).accept(Jws.CLAIMS).getPayload();
+        long expiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().getTime()
+                : now + jwtExpirationMs;
+
+        cacheLock.lock();
+        try {
+            if (claimsCache.size() >= jwtCacheSize) {
+                evict(now);
+            }
+            claimsCache.put(key, new CachedClaims(claims, expiresAt));
+        } finally {
+            cacheLock.unlock();
+        }
+        return claims;
+    }
+
+    // Buang yang expired dulu, kalau masih penuh buang yang paling lama tidak dipakai
+    private void evict(long now) {
+        claimsCache.values().removeIf(cached -> cached.expiresAt() <= now);
+
+        Iterator<Map.Entry<String, CachedClaims>> it = claimsCache.entrySet().iterator();
+        while (claimsCache.size() >= jwtCacheSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedClaims(Claims claims, long expiresAt) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,275 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
+
+/**
+ * Index in-memory untuk "activity mana yang cocok dengan plan X".
+ * Bucket per (activityType, startLocation, endLocation), isi bucket urut by startDate, jadi lookup cukup
+ * binary search ke startDate >= plan.startDate lalu scan sampai startDate > plan.endDate.
+ * Ini read model: capacity tetap dicek ulang (dengan lock) saat package diproses.
+ */
+@Component
+public class ActivityIndex {
+
+    private static final Comparator<ActivityEntry> BY_START =
+            Comparator.comparing(ActivityEntry::startDate).thenComparing(ActivityEntry::id);
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    // Versi diambil sebelum baca database, jadi operasi yang mulai belakangan selalu punya versi lebih besar
+    private final AtomicLong generation = new AtomicLong();
+    // Rebuild dan refresh memasang hasilnya di bawah lock; findCompatible tidak pernah lock
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public List<ActivityEntry> findCompatible(Plan plan) {
+        return findCompatible(plan.getActivityType(), plan.getStartLocation(), plan.getEndLocation(),
+                plan.getStartDate(), plan.getEndDate());
+    }
+
+    // Activity dengan route sama yang seluruh jadwalnya ada di dalam [from, until]
+    public List<ActivityEntry> findCompatible(String activityType, String startLocation, String endLocation,
+            LocalDateTime from, LocalDateTime until) {
+        if (from == null || until == null) {
+            return List.of();
+        }
+        List<ActivityEntry> bucket = current().buckets.get(new RouteKey(activityType, startLocation, endLocation));
+        if (bucket == null) {
+            return List.of();
+        }
+
+        List<ActivityEntry> result = new ArrayList<>();
+        for (int i = lowerBound(bucket, from); i < bucket.size(); i++) {
+            ActivityEntry entry = bucket.get(i);
+            if (entry.startDate().isAfter(until)) {
+                break;
+            }
+            if (!entry.endDate().isAfter(until)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reload activity tertentu setelah transaksi commit (atau langsung kalau tidak ada transaksi).
+     * Activity yang sudah tidak ada / soft-deleted dikeluarkan dari index.
+     */
+    public void refreshAfterCommit(Collection<String> activityIds) {
+        Set<String> ids = new HashSet<>(activityIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(ids);
+                }
+            });
+        } else {
+            refresh(ids);
+        }
+    }
+
+    // Full rebuild berkala, sekaligus menangkap perubahan dari instance lain
+    @Scheduled(fixedDelayString = "${tour_package.activity-index.rebuild-ms:300000}",
+            initialDelayString = "${tour_package.activity-index.rebuild-ms:300000}")
+    public void rebuild() {
+        long version = generation.incrementAndGet();
+        List<ActivityEntry> entries = new ArrayList<>();
+        for (Activity activity : activityRepository.findAll()) {
+            if (!activity.isDeleted()) {
+                entries.add(ActivityEntry.of(activity));
+            }
+        }
+        Snapshot loaded = Snapshot.of(version, entries);
+
+        writeLock.lock();
+        try {
+            // Rebuild lambat tidak boleh menimpa refresh/rebuild yang mulai setelahnya dan sudah terpasang;
+            // perubahan instance lain yang ikut terbuang tertangkap lagi di rebuild berikutnya
+            if (snapshot == null || version > snapshot.version) {
+                snapshot = loaded;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Helper methods
+    private void refresh(Set<String> ids) {
+        if (snapshot == null) {
+            rebuild();
+            return;
+        }
+        long version = generation.incrementAndGet();
+        Map<String, ActivityEntry> changed = new HashMap<>();
+        for (Activity activity : activityRepository.findAllById(ids)) {
+            if (!activity.isDeleted()) {
+                changed.put(activity.getId(), ActivityEntry.of(activity));
+            }
+        }
+
+        writeLock.lock();
+        try {
+            // Rebuild yang mulai setelah refresh ini sudah membaca data yang lebih baru untuk semua id;
+            // refresh lain yang lebih baru dilewati per id di patch
+            if (snapshot.rebuiltVersion > version) {
+                return;
+            }
+            snapshot.patch(ids, changed, version);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static int lowerBound(List<ActivityEntry> bucket, LocalDateTime from) {
+        int low = 0;
+        int high = bucket.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bucket.get(mid).startDate().isBefore(from)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public record ActivityEntry(String id, String vendorId, String activityName, String activityItem,
+            String activityType, String startLocation, String endLocation,
+            LocalDateTime startDate, LocalDateTime endDate, Long price, int remainingCapacity) {
+
+        static ActivityEntry of(Activity activity) {
+            return new ActivityEntry(activity.getId(), activity.getVendorId(), activity.getActivityName(),
+                    activity.getActivityItem(), activity.getActivityType(), activity.getStartLocation(),
+                    activity.getEndLocation(), activity.getStartDate(), activity.getEndDate(),
+                    activity.getPrice(), activity.getCapacity());
+        }
+    }
+
+    private record RouteKey(String activityType, String startLocation, String endLocation) {
+
+        // null kalau jadwal belum lengkap, activity seperti itu tidak bisa cocok dengan plan mana pun
+        static RouteKey of(ActivityEntry entry) {
+            if (entry.startDate() == null || entry.endDate() == null) {
+                return null;
+            }
+            return new RouteKey(entry.activityType(), entry.startLocation(), entry.endLocation());
+        }
+    }
+
+    /**
+     * buckets dibaca tanpa lock: ConcurrentHashMap berisi list immutable yang diganti utuh per bucket.
+     * routeOf, versionOf dan version hanya disentuh di bawah writeLock.
+     */
+    private static final class Snapshot {
+
+        private final long rebuiltVersion;
+        private long version;
+        private final Map<String, RouteKey> routeOf;
+        // Versi refresh terakhir yang terpasang per id (termasuk yang dihapus); id lain berversi rebuiltVersion
+        private final Map<String, Long> versionOf = new HashMap<>();
+        private final Map<RouteKey, List<ActivityEntry>> buckets;
+
+        private Snapshot(long version, Map<String, RouteKey> routeOf, Map<RouteKey, List<ActivityEntry>> buckets) {
+            this.rebuiltVersion = version;
+            this.version = version;
+            this.routeOf = routeOf;
+            this.buckets = buckets;
+        }
+
+        static Snapshot of(long version, Collection<ActivityEntry> entries) {
+            Map<String, RouteKey> routeOf = new HashMap<>();
+            Map<RouteKey, List<ActivityEntry>> buckets = new HashMap<>();
+            for (ActivityEntry entry : entries) {
+                RouteKey key = RouteKey.of(entry);
+                if (key != null) {
+                    routeOf.put(entry.id(), key);
+                    buckets.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+                }
+            }
+            Map<RouteKey, List<ActivityEntry>> sorted = new ConcurrentHashMap<>();
+            buckets.forEach((key, bucket) -> {
+                bucket.sort(BY_START);
+                sorted.put(key, List.copyOf(bucket));
+            });
+            return new Snapshot(version, routeOf, sorted);
+        }
+
+        // Hanya bucket lama/baru dari id yang berubah yang di-copy; bucket lain tetap dipakai apa adanya.
+        // Id yang sudah dipasang oleh refresh yang lebih baru dilewati, jadi refresh yang selesai belakangan
+        // tidak mengembalikan data lama (mis. capacity sebelum reservasi berikutnya)
+        void patch(Set<String> ids, Map<String, ActivityEntry> changed, long patchVersion) {
+            Map<RouteKey, List<ActivityEntry>> touched = new HashMap<>();
+            Set<String> applied = new HashSet<>();
+            for (String id : ids) {
+                if (versionOf.getOrDefault(id, rebuiltVersion) > patchVersion) {
+                    continue;
+                }
+                applied.add(id);
+                versionOf.put(id, patchVersion);
+                RouteKey previous = routeOf.remove(id);
+                if (previous != null) {
+                    editable(touched, previous).removeIf(entry -> entry.id().equals(id));
+                }
+            }
+            for (ActivityEntry entry : changed.values()) {
+                RouteKey key = RouteKey.of(entry);
+                if (key == null || !applied.contains(entry.id())) {
+                    continue;
+                }
+                routeOf.put(entry.id(), key);
+                List<ActivityEntry> bucket = editable(touched, key);
+                int position = Collections.binarySearch(bucket, entry, BY_START);
+                bucket.add(position < 0 ? -position - 1 : position, entry);
+            }
+            touched.forEach((key, bucket) -> {
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                } else {
+                    buckets.put(key, List.copyOf(bucket));
+                }
+            });
+            version = Math.max(version, patchVersion);
+        }
+
+        private List<ActivityEntry> editable(Map<RouteKey, List<ActivityEntry>> touched, RouteKey key) {
+            return touched.computeIfAbsent(key, k -> new ArrayList<>(buckets.getOrDefault(k, List.of())));
+        }
+    }
+}
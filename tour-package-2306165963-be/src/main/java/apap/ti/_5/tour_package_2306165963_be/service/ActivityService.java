@@ -1,6 +1,8 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
+import apap.ti._5.tour_package_2306165963_be.dto.activity.ActivitySearchCriteria;
 import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import org.springframework.data.domain.Page;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +15,6 @@ public interface ActivityService {
     boolean deleteActivity(String id);
     List<Activity> getActivitiesByActivityType(String type);
     List<Activity> searchActivitiesByName(String name);
+    Page<Activity> searchActivities(ActivitySearchCriteria criteria, int page, int size, String sort);
+    List<Activity> searchActivities(ActivitySearchCriteria criteria);
 }
\ No newline at end of file
@@ -1,26 +1,43 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
+import apap.ti._5.tour_package_2306165963_be.dto.activity.ActivitySearchCriteria;
 import apap.ti._5.tour_package_2306165963_be.model.Activity;
 import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.ActivitySpecifications;
 import apap.ti._5.tour_package_2306165963_be.repository.OrderedQuantityRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @Transactional
 public class ActivityServiceImpl implements ActivityService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Whitelist supaya nama property dari request tidak diteruskan mentah ke Sort. Yang didukung index hanya
+    // startDate (idx_activities_type_route_start) dan price (idx_activities_type_price), itupun kalau difilter
+    // activityType; endDate, capacity dan activityName di-sort Postgres atas baris hasil filter.
+    private static final Set<String> SORTABLE_FIELDS = Set.of("startDate", "endDate", "price", "capacity", "activityName");
+
     @Autowired
     private ActivityRepository activityRepository;
     
     @Autowired
     private OrderedQuantityRepository orderedQuantityRepository;
 
+    @Autowired
+    private ActivityIndex activityIndex;
+
     @Override
     public List<Activity> getAllActivities() {
         return activityRepository.findAll();
@@ -39,7 +56,9 @@ public class ActivityServiceImpl implements ActivityService {
         // Generate ID
         activity.setId(UUID.randomUUID().toString());
         
-        return activityRepository.save(activity);
+        Activity saved = activityRepository.save(activity);
+        activityIndex.refreshAfterCommit(List.of(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -65,7 +84,9 @@ public class ActivityServiceImpl implements ActivityService {
         existing.setStartLocation(activity.getStartLocation());
         existing.setEndLocation(activity.getEndLocation());
         
-        return activityRepository.save(existing);
+        Activity saved = activityRepository.save(existing);
+        activityIndex.refreshAfterCommit(List.of(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -77,6 +98,7 @@ public class ActivityServiceImpl implements ActivityService {
         
         if (activityRepository.existsById(id)) {
             activityRepository.deleteById(id);
+            activityIndex.refreshAfterCommit(List.of(id));
             return true;
         }
         return false;
@@ -92,7 +114,39 @@ public class ActivityServiceImpl implements ActivityService {
         return activityRepository.findByActivityNameContainingIgnoreCase(name);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Activity> searchActivities(ActivitySearchCriteria criteria, int page, int size, String sort) {
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), pageSize, parseSort(sort));
+        return activityRepository.findAll(ActivitySpecifications.matching(criteria), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Activity> searchActivities(ActivitySearchCriteria criteria) {
+        return activityRepository.findAll(ActivitySpecifications.matching(criteria), parseSort(null));
+    }
+
     // ========== PRIVATE HELPER METHODS ==========
+
+    // Format "field" atau "field,asc|desc"; id selalu jadi tie-breaker supaya urutan paging stabil
+    private Sort parseSort(String sort) {
+        String field = "startDate";
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            field = parts[0].trim();
+            if (!SORTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unsupported sort field: " + field);
+            }
+            if (parts.length > 1) {
+                direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new IllegalArgumentException("Invalid sort direction: " + parts[1]));
+            }
+        }
+        return Sort.by(direction, field).and(Sort.by(Sort.Direction.ASC, "id"));
+    }
     
     private void validateActivity(Activity activity) {
         // Validate dates
@@ -0,0 +1,20 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.CapacityReservation;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+
+import java.util.List;
+
+public interface CapacityReservationService {
+
+    /**
+     * Reserve capacity for every ordered quantity of the package.
+     * Semua activity di-lock dengan satu SELECT ... FOR UPDATE (urut by id), capacity dicek dulu untuk semua
+     * lalu baru dikurangi, jadi aman walau beberapa package diproses paralel.
+     *
+     * @throws IllegalStateException kalau capacity salah satu activity tidak cukup
+     */
+    List<CapacityReservation> reservePackage(Package pkg);
+
+    List<CapacityReservation> getReservationsByPackageId(String packageId);
+}
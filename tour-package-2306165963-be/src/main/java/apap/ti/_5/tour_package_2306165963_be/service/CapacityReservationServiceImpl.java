@@ -0,0 +1,109 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import apap.ti._5.tour_package_2306165963_be.model.CapacityReservation;
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.CapacityReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class CapacityReservationServiceImpl implements CapacityReservationService {
+
+    @Autowired
+    private CapacityReservationRepository capacityReservationRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivityIndex activityIndex;
+
+    @Override
+    public List<CapacityReservation> reservePackage(Package pkg) {
+        if (pkg.getPlans() == null) {
+            return List.of();
+        }
+
+        // Kumpulkan semua OQ, total quantity per activity (TreeMap: urut by activityId)
+        List<PendingReservation> pending = new ArrayList<>();
+        Map<String, Integer> quantityByActivity = new TreeMap<>();
+        for (Plan plan : pkg.getPlans()) {
+            if (plan.getOrderedQuantities() == null) {
+                continue;
+            }
+            for (OrderedQuantity oq : plan.getOrderedQuantities()) {
+                if (oq.getOrderedQuota() > oq.getQuota()) {
+                    throw new IllegalStateException(
+                            "OrderedQuantity exceeds Activity Capacity for activity: " + oq.getActivityName());
+                }
+                pending.add(new PendingReservation(plan, oq));
+                quantityByActivity.merge(oq.getActivityId(), oq.getOrderedQuota(), Integer::sum);
+            }
+        }
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+
+        // Satu SELECT ... FOR UPDATE untuk semua activity, lock diambil berurutan by id
+        Map<String, Activity> activities = activityRepository.findAllByIdForUpdate(quantityByActivity.keySet())
+                .stream()
+                .collect(Collectors.toMap(Activity::getId, Function.identity()));
+
+        // Semua dicek dulu sebelum ada yang diubah
+        for (Map.Entry<String, Integer> entry : quantityByActivity.entrySet()) {
+            Activity activity = activities.get(entry.getKey());
+            if (activity != null && activity.getCapacity() < entry.getValue()) {
+                throw new IllegalStateException("Not enough capacity for activity: " + activity.getActivityName());
+            }
+        }
+
+        // Activity yang sudah dihapus di-skip, sama seperti behaviour lama
+        quantityByActivity.forEach((activityId, quantity) -> {
+            Activity activity = activities.get(activityId);
+            if (activity != null) {
+                activity.setCapacity(activity.getCapacity() - quantity);
+            }
+        });
+
+        List<CapacityReservation> reservations = pending.stream()
+                .filter(p -> activities.containsKey(p.orderedQuantity().getActivityId()))
+                .map(p -> CapacityReservation.builder()
+                        .activityId(p.orderedQuantity().getActivityId())
+                        .packageId(pkg.getId())
+                        .planId(p.plan().getId())
+                        .orderedQuantityId(p.orderedQuantity().getId())
+                        .quantity(p.orderedQuantity().getOrderedQuota())
+                        .build())
+                .collect(Collectors.toList());
+
+        // UPDATE activities dan INSERT ledger di-flush sebagai JDBC batch (hibernate.jdbc.batch_size).
+        // Unique ordered_quantity_id tetap mencegah package yang sama di-reserve dua kali.
+        List<CapacityReservation> saved = capacityReservationRepository.saveAll(reservations);
+        capacityReservationRepository.flush();
+        // Sisa capacity di index compatible-activities ikut diperbarui setelah commit
+        activityIndex.refreshAfterCommit(activities.keySet());
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CapacityReservation> getReservationsByPackageId(String packageId) {
+        return capacityReservationRepository.findByPackageId(packageId);
+    }
+
+    private record PendingReservation(Plan plan, OrderedQuantity orderedQuantity) {
+    }
+}
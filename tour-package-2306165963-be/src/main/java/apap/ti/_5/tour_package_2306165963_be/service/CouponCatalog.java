@@ -0,0 +1,126 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.CouponResponseDTO;
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.Coupon;
+import apap.ti._5.tour_package_2306165963_be.repository.CouponRepository;
+
+/**
+ * Read-mostly catalog coupon. Snapshot immutable di-swap lewat AtomicReference setiap kali coupon
+ * dibuat/diubah, jadi read path (list, lookup by id) tidak pernah query database.
+ * Object yang dikembalikan dipakai bersama antar request, jangan di-mutate.
+ */
+@Component
+public class CouponCatalog {
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public List<CouponResponseDTO> getCoupons() {
+        return current().sorted();
+    }
+
+    public Optional<Coupon> findById(UUID id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(current().byId().get(id));
+    }
+
+    public int size() {
+        return current().sorted().size();
+    }
+
+    /**
+     * Reload snapshot setelah transaksi yang sedang berjalan commit (atau langsung kalau tidak ada transaksi),
+     * supaya reader tidak pernah melihat coupon yang belum committed.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    // Safety net kalau coupon diubah dari instance lain
+    @Scheduled(fixedDelayString = "${loyalty.coupon-catalog.refresh-ms:300000}",
+            initialDelayString = "${loyalty.coupon-catalog.refresh-ms:300000}")
+    public void refresh() {
+        long version = generation.incrementAndGet();
+        Snapshot loaded = load(version);
+        // Refresh yang mulai lebih dulu tapi selesai belakangan tidak boleh menimpa snapshot yang lebih baru
+        snapshot.accumulateAndGet(loaded,
+                (previous, next) -> previous == null || next.version() > previous.version() ? next : previous);
+    }
+
+    // Helper methods
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            refresh();
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    private Snapshot load(long version) {
+        List<Coupon> coupons = couponRepository.findAllByOrderByCreatedDateDesc();
+        Map<UUID, Coupon> byId = new LinkedHashMap<>();
+        List<CouponResponseDTO> sorted = new ArrayList<>(coupons.size());
+        for (Coupon coupon : coupons) {
+            Coupon copy = copyOf(coupon);
+            byId.put(copy.getId(), copy);
+            sorted.add(toResponse(copy));
+        }
+        return new Snapshot(version, Collections.unmodifiableList(sorted), Collections.unmodifiableMap(byId));
+    }
+
+    // Copy detached supaya snapshot tidak ikut berubah kalau entity managed di-mutate
+    private Coupon copyOf(Coupon coupon) {
+        return Coupon.builder()
+                .id(coupon.getId())
+                .name(coupon.getName())
+                .description(coupon.getDescription())
+                .points(coupon.getPoints())
+                .percentOff(coupon.getPercentOff())
+                .createdDate(coupon.getCreatedDate())
+                .updatedDate(coupon.getUpdatedDate())
+                .build();
+    }
+
+    private CouponResponseDTO toResponse(Coupon coupon) {
+        return CouponResponseDTO.builder()
+                .id(coupon.getId())
+                .name(coupon.getName())
+                .description(coupon.getDescription())
+                .points(coupon.getPoints())
+                .percentOff(coupon.getPercentOff())
+                .createdDate(coupon.getCreatedDate())
+                .updatedDate(coupon.getUpdatedDate())
+                .build();
+    }
+
+    private record Snapshot(long version, List<CouponResponseDTO> sorted, Map<UUID, Coupon> byId) {
+    }
+}
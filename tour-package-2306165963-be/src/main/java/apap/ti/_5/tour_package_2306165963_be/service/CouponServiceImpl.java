@@ -2,7 +2,6 @@ package apap.ti._5.tour_package_2306165963_be.service;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -20,11 +19,12 @@ public class CouponServiceImpl implements CouponService {
     @Autowired
     private CouponRepository couponRepo;
 
+    @Autowired
+    private CouponCatalog couponCatalog;
+
     @Override
     public List<CouponResponseDTO> getCoupons() {
-        return couponRepo.findAllByOrderByCreatedDateDesc().stream()
-                .map(this::mapToCouponResponseDTO)
-                .collect(Collectors.toList());
+        return couponCatalog.getCoupons();
     }
 
     @Override
@@ -36,6 +36,7 @@ public class CouponServiceImpl implements CouponService {
                 .percentOff(dto.getPercentOff())
                 .build();
         Coupon saved = couponRepo.save(c);
+        couponCatalog.refreshAfterCommit();
         return mapToCouponResponseDTO(saved);
     }
 
@@ -48,6 +49,7 @@ public class CouponServiceImpl implements CouponService {
         c.setPoints(dto.getPoints());
         c.setPercentOff(dto.getPercentOff());
         Coupon saved = couponRepo.save(c);
+        couponCatalog.refreshAfterCommit();
         return mapToCouponResponseDTO(saved);
     }
 
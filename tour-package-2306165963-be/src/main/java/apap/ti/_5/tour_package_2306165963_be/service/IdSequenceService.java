@@ -0,0 +1,12 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import java.util.function.LongSupplier;
+
+public interface IdSequenceService {
+
+    /**
+     * Allocate the next value of a per-key sequence.
+     * Kalau key belum ada, counter di-seed sekali dari {@code initialValue} (nilai terakhir yang sudah terpakai).
+     */
+    long nextValue(String key, LongSupplier initialValue);
+}
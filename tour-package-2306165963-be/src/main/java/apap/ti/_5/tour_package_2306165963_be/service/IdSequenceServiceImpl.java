@@ -0,0 +1,29 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.repository.IdSequenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+@Service
+public class IdSequenceServiceImpl implements IdSequenceService {
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+
+    // Ikut transaksi caller (tidak pinjam koneksi kedua dari pool). Row lock counter ditahan sampai caller
+    // commit, jadi create untuk key yang sama berurutan; kalau create gagal, nomornya ikut di-rollback.
+    @Override
+    @Transactional
+    public long nextValue(String key, LongSupplier initialValue) {
+        Optional<Long> next = idSequenceRepository.increment(key);
+        if (next.isPresent()) {
+            return next.get();
+        }
+        // Seed hanya dihitung untuk key yang belum punya counter
+        return idSequenceRepository.seedOrIncrement(key, initialValue.getAsLong());
+    }
+}
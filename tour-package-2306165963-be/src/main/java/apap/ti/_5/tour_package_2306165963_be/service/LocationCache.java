@@ -0,0 +1,182 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Cache data wilayah (provinsi, kabupaten/kota) dari wilayah.id.
+ * Key = path API tanpa ".json", mis. "provinces" atau "regencies/11". Yang disimpan hanya code + name.
+ * Entry yang lewat TTL tetap dikembalikan sambil di-refresh di background (stale-while-revalidate),
+ * miss yang bersamaan berbagi satu call upstream, dan isi cache disimpan ke disk supaya startup
+ * maupun saat upstream down tidak perlu menunggu API.
+ */
+@Slf4j
+@Component
+public class LocationCache {
+
+    static final String PROVINCES = "provinces";
+
+    private static final TypeReference<Map<String, Entry>> SNAPSHOT_TYPE = new TypeReference<>() {
+    };
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final long ttlMs;
+    private final Duration timeout;
+    private final Path snapshotPath;
+    private final Scheduler snapshotScheduler;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Mono<List<Map<String, Object>>>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LocationCache(WebClient.Builder webClientBuilder,
+                         ObjectMapper objectMapper,
+                         @Value("${tour_package.location.base-url:https://wilayah.id/api}") String baseUrl,
+                         @Value("${tour_package.location.ttl-ms:86400000}") long ttlMs,
+                         @Value("${tour_package.location.timeout-ms:3000}") long timeoutMs,
+                         @Value("${tour_package.location.snapshot-path:data/location-snapshot.json}") String snapshotPath) {
+        this(webClientBuilder, objectMapper, baseUrl, ttlMs, timeoutMs, snapshotPath, Schedulers.boundedElastic());
+    }
+
+    LocationCache(WebClient.Builder webClientBuilder, ObjectMapper objectMapper, String baseUrl, long ttlMs,
+                  long timeoutMs, String snapshotPath, Scheduler snapshotScheduler) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.objectMapper = objectMapper;
+        this.ttlMs = ttlMs;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.snapshotPath = Path.of(snapshotPath);
+        this.snapshotScheduler = snapshotScheduler;
+    }
+
+    public Mono<List<Map<String, Object>>> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            // Miss: tunggu upstream, tapi request lain untuk key yang sama ikut call yang sama
+            return fetch(key);
+        }
+        if (entry.isExpired(System.currentTimeMillis(), ttlMs)) {
+            revalidate(key);
+        }
+        return Mono.just(entry.data());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @PostConstruct
+    void loadSnapshot() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return;
+        }
+        try {
+            Map<String, Entry> loaded = objectMapper.readValue(snapshotPath.toFile(), SNAPSHOT_TYPE);
+            entries.putAll(loaded);
+            log.info("Loaded {} location entries from {}", loaded.size(), snapshotPath);
+        } catch (IOException e) {
+            log.warn("Failed to read location snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    // Refresh entry yang sudah lewat TTL dan warm-up daftar provinsi kalau belum ada (non-blocking)
+    @Scheduled(fixedDelayString = "${tour_package.location.refresh-check-ms:3600000}")
+    public void refreshExpired() {
+        long now = System.currentTimeMillis();
+        entries.forEach((key, entry) -> {
+            if (entry.isExpired(now, ttlMs)) {
+                revalidate(key);
+            }
+        });
+        if (!entries.containsKey(PROVINCES)) {
+            revalidate(PROVINCES);
+        }
+    }
+
+    // Helper methods
+    private void revalidate(String key) {
+        fetch(key).subscribe(
+                data -> { },
+                error -> log.warn("Location refresh for {} failed, serving cached data: {}", key, error.getMessage()));
+    }
+
+    private Mono<List<Map<String, Object>>> fetch(String key) {
+        return inFlight.computeIfAbsent(key, this::upstream);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<List<Map<String, Object>>> upstream(String key) {
+        return webClient.get()
+                .uri("/" + key + ".json")
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(timeout)
+                .map(response -> compact((List<Map<String, Object>>) response.get("data")))
+                .doOnNext(data -> store(key, data))
+                .doFinally(signal -> inFlight.remove(key))
+                .cache();
+    }
+
+    private void store(String key, List<Map<String, Object>> data) {
+        entries.put(key, new Entry(data, System.currentTimeMillis()));
+        // File IO jangan di event loop WebClient
+        snapshotScheduler.schedule(this::writeSnapshot);
+    }
+
+    private void writeSnapshot() {
+        try {
+            Path dir = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            // Tulis ke file sementara lalu rename, supaya snapshot di disk tidak pernah setengah jadi
+            Path tmp = Files.createTempFile(dir, "location-snapshot", ".tmp");
+            objectMapper.writeValue(tmp.toFile(), new LinkedHashMap<>(entries));
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write location snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private static List<Map<String, Object>> compact(List<Map<String, Object>> items) {
+        if (items == null) {
+            return List.of();
+        }
+        List<Map<String, Object>> compacted = new ArrayList<>(items.size());
+        for (Map<String, Object> item : items) {
+            Map<String, Object> region = new LinkedHashMap<>(2);
+            region.put("code", item.get("code"));
+            region.put("name", item.get("name"));
+            compacted.add(Collections.unmodifiableMap(region));
+        }
+        return Collections.unmodifiableList(compacted);
+    }
+
+    record Entry(List<Map<String, Object>> data, long fetchedAt) {
+        boolean isExpired(long now, long ttlMs) {
+            return now - fetchedAt >= ttlMs;
+        }
+    }
+}
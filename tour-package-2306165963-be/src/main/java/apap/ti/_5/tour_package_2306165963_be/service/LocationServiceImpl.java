@@ -1,36 +1,34 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 @Service
 public class LocationServiceImpl implements LocationService {
 
-    private final WebClient webClient;
+    // Kode wilayah hanya angka dan titik, sekaligus mencegah path lain ikut masuk ke key cache
+    private static final Pattern REGION_CODE = Pattern.compile("[0-9.]+");
 
-    public LocationServiceImpl(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl("https://wilayah.id/api").build();
+    private final LocationCache locationCache;
+
+    public LocationServiceImpl(LocationCache locationCache) {
+        this.locationCache = locationCache;
     }
 
     @Override
     public Mono<List<Map<String, Object>>> getAllProvinces() {
-        return this.webClient.get()
-                .uri("/provinces.json")
-                .retrieve()
-                .bodyToMono(Map.class)
-                .map(response -> (List<Map<String, Object>>) response.get("data"));
+        return locationCache.get(LocationCache.PROVINCES);
     }
 
     @Override
     public Mono<List<Map<String, Object>>> getRegenciesByProvince(String provinceCode) {
-        return this.webClient.get()
-                .uri("/regencies/{provinceCode}.json", provinceCode)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .map(response -> (List<Map<String, Object>>) response.get("data"));
+        if (provinceCode == null || !REGION_CODE.matcher(provinceCode).matches()) {
+            return Mono.error(new IllegalArgumentException("Invalid province code: " + provinceCode));
+        }
+        return locationCache.get("regencies/" + provinceCode);
     }
 }
@@ -0,0 +1,12 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import java.time.LocalDateTime;
+
+public interface LoyaltyLedgerCompactionService {
+
+    /**
+     * Padatkan semua entry ledger sebelum {@code cutoff} jadi satu baris SNAPSHOT per customer.
+     * Return jumlah customer yang di-snapshot.
+     */
+    int compactBefore(LocalDateTime cutoff);
+}
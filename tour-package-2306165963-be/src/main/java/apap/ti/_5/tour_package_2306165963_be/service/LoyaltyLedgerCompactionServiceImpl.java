@@ -0,0 +1,56 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.LoyaltyPointsLedger;
+import apap.ti._5.tour_package_2306165963_be.repository.LoyaltyPointsLedgerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class LoyaltyLedgerCompactionServiceImpl implements LoyaltyLedgerCompactionService {
+
+    @Autowired
+    private LoyaltyPointsLedgerRepository loyaltyPointsLedgerRepository;
+
+    // Reference yang lebih tua dari retention ikut terhapus, jadi retry setelah itu tidak lagi idempotent
+    @Value("${loyalty.ledger.retention-days:30}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${loyalty.ledger.compaction-cron:0 0 3 * * *}")
+    public void compactExpired() {
+        int customers = compactBefore(LocalDateTime.now().minusDays(retentionDays));
+        log.info("Loyalty ledger compacted for {} customers", customers);
+    }
+
+    @Override
+    @Transactional
+    public int compactBefore(LocalDateTime cutoff) {
+        // Snapshot lama ikut dijumlah, jadi tiap customer tetap punya paling banyak satu baris SNAPSHOT
+        List<LoyaltyPointsLedger> snapshots = new ArrayList<>();
+        for (Object[] row : loyaltyPointsLedgerRepository.sumDeltaBefore(cutoff)) {
+            snapshots.add(LoyaltyPointsLedger.builder()
+                    .customerId((UUID) row[0])
+                    .delta(row[1] != null ? ((Number) row[1]).intValue() : 0)
+                    .reason(LoyaltyPointsLedger.REASON_SNAPSHOT)
+                    .createdDate(cutoff.minusNanos(1000))
+                    .build());
+        }
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+
+        // Entry baru punya createdDate >= cutoff, jadi tidak ikut terhapus walau ditulis bersamaan
+        loyaltyPointsLedgerRepository.deleteBefore(cutoff);
+        loyaltyPointsLedgerRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.UUID;
 
 import apap.ti._5.tour_package_2306165963_be.dto.coupon.AddPointsRequestDto;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.AddPointsBatchItemResultDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.LoyaltyDashboardResponseDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.LoyaltyPointsResponseDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.PurchaseCouponRequestDTO;
@@ -15,6 +16,8 @@ public interface LoyaltyService {
 
     LoyaltyPointsResponseDTO addPoints(AddPointsRequestDto request);
 
+    List<AddPointsBatchItemResultDTO> addPointsBatch(List<AddPointsRequestDto> requests);
+
     LoyaltyPointsResponseDTO getBalance(UUID customerId);
 
     PurchasedCouponResponseDTO purchaseCoupon(PurchaseCouponRequestDTO request);
@@ -1,26 +1,35 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import apap.ti._5.tour_package_2306165963_be.dto.coupon.AddPointsRequestDto;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.AddPointsBatchItemResultDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.CouponResponseDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.LoyaltyDashboardResponseDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.LoyaltyPointsResponseDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.PurchaseCouponRequestDTO;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.PurchasedCouponCountsView;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.PurchasedCouponResponseDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.RedeemCouponRequestDTO;
 import apap.ti._5.tour_package_2306165963_be.dto.loyalty.RedeemCouponResponseDTO;
 import apap.ti._5.tour_package_2306165963_be.model.loyalty.Coupon;
 import apap.ti._5.tour_package_2306165963_be.model.loyalty.LoyaltyPoints;
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.LoyaltyPointsLedger;
 import apap.ti._5.tour_package_2306165963_be.model.loyalty.PurchasedCoupon;
-import apap.ti._5.tour_package_2306165963_be.repository.CouponRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.LoyaltyPointsJdbcRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.LoyaltyPointsLedgerRepository;
 import apap.ti._5.tour_package_2306165963_be.repository.LoyaltyPointsRepository;
 import apap.ti._5.tour_package_2306165963_be.repository.PurchasedCouponRepository;
 import lombok.RequiredArgsConstructor;
@@ -29,21 +38,146 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LoyaltyServiceImpl implements LoyaltyService {
 
+    // Batas item per request bulk add-points
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final LoyaltyPointsRepository loyaltyPointsRepository;
-    private final CouponRepository couponRepository;
+    private final LoyaltyPointsLedgerRepository loyaltyPointsLedgerRepository;
+    private final LoyaltyPointsJdbcRepository loyaltyPointsJdbcRepository;
+    private final CouponCatalog couponCatalog;
     private final PurchasedCouponRepository purchasedCouponRepository;
+    private final IdSequenceService idSequenceService;
 
     @Transactional
     public LoyaltyPointsResponseDTO addPoints(AddPointsRequestDto request) {
-        LoyaltyPoints points = loyaltyPointsRepository.findByCustomerId(request.getCustomerId())
-                .orElseGet(() -> LoyaltyPoints.builder()
-                        .customerId(request.getCustomerId())
-                        .points(0)
-                        .build());
+        UUID customerId = request.getCustomerId();
+        String reference = StringUtils.hasText(request.getReference()) ? request.getReference() : null;
+
+        // Ledger ditulis duluan: retry dari partner dengan reference yang sama tidak insert apa-apa
+        // dan tidak menambah poin dua kali, termasuk kalau dua retry datang bersamaan
+        if (reference != null) {
+            int inserted = loyaltyPointsLedgerRepository.insertIfAbsent(UUID.randomUUID(), customerId,
+                    request.getPoints(), LoyaltyPointsLedger.REASON_ADD_POINTS, reference, LocalDateTime.now());
+            if (inserted == 0) {
+                return getBalance(customerId);
+            }
+        } else {
+            appendLedger(customerId, request.getPoints(), LoyaltyPointsLedger.REASON_ADD_POINTS, null);
+        }
+
+        // Update atomic di database, jadi request paralel tidak saling menimpa
+        loyaltyPointsRepository.ensureAccount(customerId);
+        loyaltyPointsRepository.credit(customerId, request.getPoints());
+
+        return getBalance(customerId);
+    }
+
+    @Transactional
+    public List<AddPointsBatchItemResultDTO> addPointsBatch(List<AddPointsRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must not exceed " + MAX_BATCH_SIZE + " items");
+        }
 
-        points.setPoints(points.getPoints() + request.getPoints());
-        LoyaltyPoints saved = loyaltyPointsRepository.save(points);
-        return mapPoints(saved);
+        List<AddPointsBatchItemResultDTO> results = new ArrayList<>(requests.size());
+        List<LoyaltyPointsLedger> ledgerEntries = new ArrayList<>();
+        Map<UUID, AddPointsBatchItemResultDTO> resultByEntry = new HashMap<>();
+        Set<String> batchReferences = new HashSet<>();
+        // Saldo sekarang + total batch per customer dalam long, dicek terhadap batas INTEGER kolom points
+        // sebelum diterapkan. Credit paralel di antara baca dan update masih bisa melewati batas; statement
+        // credit lalu gagal dan seluruh batch di-rollback, tidak ada saldo yang wrap
+        Map<UUID, Long> requested = currentBalances(requests);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < requests.size(); i++) {
+            AddPointsRequestDto request = requests.get(i);
+            AddPointsBatchItemResultDTO result = AddPointsBatchItemResultDTO.builder()
+                    .index(i)
+                    .customerId(request != null ? request.getCustomerId() : null)
+                    .reference(request != null ? request.getReference() : null)
+                    .build();
+            results.add(result);
+
+            String error = validateAddPoints(request);
+            if (error != null) {
+                result.setStatus(AddPointsBatchItemResultDTO.STATUS_REJECTED);
+                result.setMessage(error);
+                continue;
+            }
+
+            String reference = StringUtils.hasText(request.getReference()) ? request.getReference() : null;
+            // Muncul dua kali dalam batch yang sama
+            if (reference != null && !batchReferences.add(reference)) {
+                result.setStatus(AddPointsBatchItemResultDTO.STATUS_DUPLICATE);
+                continue;
+            }
+
+            long total = requested.getOrDefault(request.getCustomerId(), 0L) + request.getPoints();
+            if (total > Integer.MAX_VALUE) {
+                result.setStatus(AddPointsBatchItemResultDTO.STATUS_REJECTED);
+                result.setMessage("Customer balance must not exceed " + Integer.MAX_VALUE + " points");
+                continue;
+            }
+            requested.put(request.getCustomerId(), total);
+
+            LoyaltyPointsLedger entry = LoyaltyPointsLedger.builder()
+                    .id(UUID.randomUUID())
+                    .customerId(request.getCustomerId())
+                    .delta(request.getPoints())
+                    .reason(LoyaltyPointsLedger.REASON_ADD_POINTS)
+                    .reference(reference)
+                    .createdDate(now)
+                    .build();
+            ledgerEntries.add(entry);
+            resultByEntry.put(entry.getId(), result);
+        }
+
+        // Satu INSERT ... ON CONFLICT (reference) DO NOTHING; hanya entry yang benar-benar masuk yang dikreditkan,
+        // reference yang sudah diproses (juga oleh request paralel) jadi DUPLICATE
+        Set<UUID> inserted = ledgerEntries.isEmpty()
+                ? Set.of()
+                : loyaltyPointsJdbcRepository.insertLedgerEntries(ledgerEntries);
+
+        // TreeMap: baris saldo selalu di-lock dengan urutan yang sama antar batch paralel
+        Map<UUID, Integer> deltas = new TreeMap<>();
+        for (LoyaltyPointsLedger entry : ledgerEntries) {
+            AddPointsBatchItemResultDTO result = resultByEntry.get(entry.getId());
+            if (inserted.contains(entry.getId())) {
+                // Tidak overflow: subset dari total yang sudah dicek di atas
+                deltas.merge(entry.getCustomerId(), entry.getDelta(), Integer::sum);
+                result.setStatus(AddPointsBatchItemResultDTO.STATUS_APPLIED);
+            } else {
+                result.setStatus(AddPointsBatchItemResultDTO.STATUS_DUPLICATE);
+            }
+        }
+
+        Set<UUID> customerIds = new HashSet<>();
+        for (AddPointsBatchItemResultDTO result : results) {
+            if (!AddPointsBatchItemResultDTO.STATUS_REJECTED.equals(result.getStatus())) {
+                customerIds.add(result.getCustomerId());
+            }
+        }
+
+        if (!deltas.isEmpty()) {
+            loyaltyPointsJdbcRepository.ensureAccounts(deltas.keySet());
+            loyaltyPointsJdbcRepository.creditAll(deltas);
+        }
+
+        // Saldo akhir per customer, dibaca sekali setelah semua delta diterapkan
+        Map<UUID, Integer> balances = new HashMap<>();
+        if (!customerIds.isEmpty()) {
+            for (LoyaltyPoints points : loyaltyPointsRepository.findAllById(customerIds)) {
+                balances.put(points.getCustomerId(), points.getPoints());
+            }
+        }
+        for (AddPointsBatchItemResultDTO result : results) {
+            if (!AddPointsBatchItemResultDTO.STATUS_REJECTED.equals(result.getStatus())) {
+                result.setPoints(balances.getOrDefault(result.getCustomerId(), 0));
+            }
+        }
+        return results;
     }
 
     public LoyaltyPointsResponseDTO getBalance(UUID customerId) {
@@ -58,24 +192,20 @@ public class LoyaltyServiceImpl implements LoyaltyService {
 
     @Transactional
     public PurchasedCouponResponseDTO purchaseCoupon(PurchaseCouponRequestDTO request) {
-        Coupon coupon = couponRepository.findById(request.getCouponId())
+        Coupon coupon = couponCatalog.findById(request.getCouponId())
                 .orElseThrow(
                         () -> new IllegalArgumentException("Coupon with id " + request.getCouponId() + " not found"));
 
-        LoyaltyPoints points = loyaltyPointsRepository.findByCustomerId(request.getCustomerId())
-                .orElseGet(() -> LoyaltyPoints.builder()
-                        .customerId(request.getCustomerId())
-                        .points(0)
-                        .build());
-
-        if (points.getPoints() < coupon.getPoints()) {
+        // Customer tanpa riwayat poin tetap punya saldo 0 (coupon 0 poin bisa dibeli), seperti addPoints
+        loyaltyPointsRepository.ensureAccount(request.getCustomerId());
+        // Guarded debit: saldo hanya berkurang kalau masih cukup, dicek dan diubah dalam satu statement
+        if (loyaltyPointsRepository.debit(request.getCustomerId(), coupon.getPoints()) == 0) {
             throw new IllegalStateException("Insufficient loyalty points");
         }
 
-        points.setPoints(points.getPoints() - coupon.getPoints());
-        loyaltyPointsRepository.save(points);
-
         String code = generateCouponCode(coupon, request.getCustomerId());
+        appendLedger(request.getCustomerId(), -coupon.getPoints(), LoyaltyPointsLedger.REASON_PURCHASE_COUPON,
+                "purchase:" + code);
 
         PurchasedCoupon purchasedCoupon = PurchasedCoupon.builder()
                 .code(code)
@@ -84,36 +214,30 @@ public class LoyaltyServiceImpl implements LoyaltyService {
                 .build();
 
         PurchasedCoupon saved = purchasedCouponRepository.save(purchasedCoupon);
-        return mapPurchasedCoupon(saved);
+        return mapPurchasedCoupon(saved, coupon);
     }
 
     public List<PurchasedCouponResponseDTO> getPurchasedCoupons(UUID customerId) {
-        return purchasedCouponRepository.findByCustomerIdOrderByPurchasedDateDesc(customerId)
-                .stream()
-                .map(this::mapPurchasedCoupon)
-                .collect(Collectors.toList());
+        return purchasedCouponRepository.findDetailsByCustomerId(customerId);
     }
 
     @Transactional(readOnly = true)
     public LoyaltyDashboardResponseDTO getDashboard(UUID customerId) {
+        // Jumlah query tetap (balance, purchased+coupon join, counts); available coupons dari catalog in-memory
         LoyaltyPointsResponseDTO balance = getBalance(customerId);
         List<PurchasedCouponResponseDTO> purchasedCoupons = getPurchasedCoupons(customerId);
-        List<CouponResponseDTO> availableCoupons = couponRepository.findAllByOrderByCreatedDateDesc().stream()
-                .map(this::mapCoupon)
-                .collect(Collectors.toList());
+        List<CouponResponseDTO> availableCoupons = couponCatalog.getCoupons();
 
-        long totalPurchased = purchasedCouponRepository.countByCustomerId(customerId);
-        long activeCoupons = purchasedCouponRepository.countByCustomerIdAndUsedDateIsNull(customerId);
-        long redeemedCoupons = purchasedCouponRepository.countByCustomerIdAndUsedDateIsNotNull(customerId);
+        PurchasedCouponCountsView counts = purchasedCouponRepository.countsByCustomerId(customerId);
 
         return LoyaltyDashboardResponseDTO.builder()
                 .customerId(customerId)
                 .balance(balance)
                 .purchasedCoupons(purchasedCoupons)
                 .availableCoupons(availableCoupons)
-                .totalPurchasedCoupons(Math.toIntExact(totalPurchased))
-                .activeCoupons(Math.toIntExact(activeCoupons))
-                .redeemedCoupons(Math.toIntExact(redeemedCoupons))
+                .totalPurchasedCoupons(toCount(counts != null ? counts.getTotal() : null))
+                .activeCoupons(toCount(counts != null ? counts.getActive() : null))
+                .redeemedCoupons(toCount(counts != null ? counts.getRedeemed() : null))
                 .availableCouponCount(availableCoupons.size())
                 .build();
     }
@@ -134,7 +258,7 @@ public class LoyaltyServiceImpl implements LoyaltyService {
         purchasedCoupon.setUsedDate(LocalDateTime.now());
         purchasedCouponRepository.save(purchasedCoupon);
 
-        Coupon coupon = couponRepository.findById(purchasedCoupon.getCouponId())
+        Coupon coupon = couponCatalog.findById(purchasedCoupon.getCouponId())
                 .orElseThrow(() -> new IllegalStateException("Coupon definition not found"));
 
         return RedeemCouponResponseDTO.builder()
@@ -146,6 +270,47 @@ public class LoyaltyServiceImpl implements LoyaltyService {
                 .build();
     }
 
+    private Map<UUID, Long> currentBalances(List<AddPointsRequestDto> requests) {
+        Set<UUID> customerIds = new HashSet<>();
+        for (AddPointsRequestDto request : requests) {
+            if (request != null && request.getCustomerId() != null) {
+                customerIds.add(request.getCustomerId());
+            }
+        }
+        Map<UUID, Long> balances = new HashMap<>();
+        if (!customerIds.isEmpty()) {
+            for (LoyaltyPoints points : loyaltyPointsRepository.findAllById(customerIds)) {
+                balances.put(points.getCustomerId(), (long) points.getPoints());
+            }
+        }
+        return balances;
+    }
+
+    private String validateAddPoints(AddPointsRequestDto request) {
+        if (request == null) {
+            return "Item is required";
+        }
+        if (request.getCustomerId() == null) {
+            return "Customer ID is required";
+        }
+        if (request.getPoints() == null) {
+            return "Points is required";
+        }
+        if (request.getPoints() < 1) {
+            return "Points to add must be at least 1";
+        }
+        return null;
+    }
+
+    private void appendLedger(UUID customerId, int delta, String reason, String reference) {
+        loyaltyPointsLedgerRepository.save(LoyaltyPointsLedger.builder()
+                .customerId(customerId)
+                .delta(delta)
+                .reason(reason)
+                .reference(reference)
+                .build());
+    }
+
     private LoyaltyPointsResponseDTO mapPoints(LoyaltyPoints points) {
         return LoyaltyPointsResponseDTO.builder()
                 .customerId(points.getCustomerId())
@@ -153,8 +318,11 @@ public class LoyaltyServiceImpl implements LoyaltyService {
                 .build();
     }
 
-    private PurchasedCouponResponseDTO mapPurchasedCoupon(PurchasedCoupon purchasedCoupon) {
-        Coupon coupon = couponRepository.findById(purchasedCoupon.getCouponId()).orElse(null);
+    private int toCount(Long value) {
+        return value != null ? Math.toIntExact(value) : 0;
+    }
+
+    private PurchasedCouponResponseDTO mapPurchasedCoupon(PurchasedCoupon purchasedCoupon, Coupon coupon) {
         return PurchasedCouponResponseDTO.builder()
                 .id(purchasedCoupon.getId())
                 .code(purchasedCoupon.getCode())
@@ -168,29 +336,27 @@ public class LoyaltyServiceImpl implements LoyaltyService {
                 .build();
     }
 
-    private CouponResponseDTO mapCoupon(Coupon coupon) {
-        return CouponResponseDTO.builder()
-                .id(coupon.getId())
-                .name(coupon.getName())
-                .description(coupon.getDescription())
-                .points(coupon.getPoints())
-                .percentOff(coupon.getPercentOff())
-                .createdDate(coupon.getCreatedDate())
-                .updatedDate(coupon.getUpdatedDate())
-                .build();
-    }
-
-    private String generateCouponCode(Coupon coupon, UUID customerId) {
-        long sequence = purchasedCouponRepository.countByCustomerIdAndCouponId(customerId, coupon.getId()) + 1;
+    // Package-private supaya bisa di-benchmark (src/jmh)
+    String generateCouponCode(Coupon coupon, UUID customerId) {
         String couponPart = sanitize(coupon.getName());
         String userPart = customerId.toString().substring(0, 6).toUpperCase();
+        String prefix = couponPart + "-" + userPart;
+
+        // Counter per prefix (bukan per customer+coupon): dua coupon/customer yang prefix-nya sama
+        // tetap dapat nomor berbeda, jadi kode pasti unik tanpa probe existsByCode
+        long sequence = idSequenceService.nextValue("coupon:" + prefix, () -> lastSequenceOf(prefix));
+        return buildCode(couponPart, userPart, sequence);
+    }
 
-        String code = buildCode(couponPart, userPart, sequence);
-        while (purchasedCouponRepository.existsByCode(code)) {
-            sequence++;
-            code = buildCode(couponPart, userPart, sequence);
+    private long lastSequenceOf(String prefix) {
+        long last = 0;
+        for (String code : purchasedCouponRepository.findCodesByPrefix(prefix)) {
+            String suffix = code.substring(prefix.length() + 1);
+            if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                last = Math.max(last, Long.parseLong(suffix));
+            }
         }
-        return code;
+        return last;
     }
 
     private String buildCode(String couponPart, String userPart, long sequence) {
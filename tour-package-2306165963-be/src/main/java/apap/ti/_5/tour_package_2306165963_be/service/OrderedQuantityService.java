@@ -1,6 +1,8 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
 import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,6 +13,10 @@ public interface OrderedQuantityService {
     OrderedQuantity createOrderedQuantity(String planId, OrderedQuantity orderedQuantity);
     OrderedQuantity updateOrderedQuantity(String id, Integer newQuota);
     boolean deleteOrderedQuantity(String id);
+    // Varian untuk caller yang sudah me-load plan & package (mis. untuk RBAC), supaya tidak dibaca ulang
+    OrderedQuantity createOrderedQuantity(Plan plan, Package pkg, OrderedQuantity orderedQuantity);
+    OrderedQuantity updateOrderedQuantity(OrderedQuantity orderedQuantity, Plan plan, Package pkg, Integer newQuota);
+    boolean deleteOrderedQuantity(OrderedQuantity orderedQuantity, Plan plan, Package pkg);
     List<OrderedQuantity> getOrderedQuantitiesByPlanId(String planId);
     Long calculateTotalPriceForPlan(String planId);
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,6 +33,12 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
     @Autowired
     private PackageRepository packageRepository;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private PackageVendorService packageVendorService;
+
     @Override
     public List<OrderedQuantity> getAllOrderedQuantities() {
         return orderedQuantityRepository.findAll();
@@ -51,13 +58,19 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
 
         Plan plan = planOptional.get();
 
-        // Check package status - only Pending packages can add ordered quantities
         Optional<Package> pkgOpt = packageRepository.findById(plan.getPackageId());
         if (pkgOpt.isEmpty()) {
             throw new IllegalArgumentException("Package not found");
         }
 
-        Package pkg = pkgOpt.get();
+        return createOrderedQuantity(plan, pkgOpt.get(), orderedQuantity);
+    }
+
+    @Override
+    public OrderedQuantity createOrderedQuantity(Plan plan, Package pkg, OrderedQuantity orderedQuantity) {
+        UUID planId = plan.getId();
+
+        // Check package status - only Pending packages can add ordered quantities
         if (!"Pending".equals(pkg.getStatus())) {
             throw new IllegalStateException("Can only add ordered quantity to Pending packages");
         }
@@ -94,7 +107,7 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
 
         // Check if activity is already in the plan
         List<OrderedQuantity> existingOQ = orderedQuantityRepository
-                .findByPlanIdAndActivityId(UUID.fromString(planId), activityId);
+                .findByPlanIdAndActivityId(planId, activityId);
         if (!existingOQ.isEmpty()) {
             throw new IllegalStateException("Activity is already added to this plan");
         }
@@ -105,7 +118,9 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
                             ") exceeds activity capacity (" + activity.getCapacity() + ")");
         }
 
-        int totalOrderedQuantityAcrossPlan = orderedQuantityRepository.findByPlanId(UUID.fromString(planId)).stream()
+        // Satu kali baca OQ plan ini: untuk validasi quota sekaligus hitung ulang status & price plan
+        List<OrderedQuantity> planOrderedQuantities = new ArrayList<>(orderedQuantityRepository.findByPlanId(planId));
+        int totalOrderedQuantityAcrossPlan = planOrderedQuantities.stream()
                 .mapToInt(OrderedQuantity::getOrderedQuota)
                 .sum();
 
@@ -114,8 +129,10 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
                     "Total ordered quantity across all plans cannot exceed Package Quota (" + pkg.getQuota() + ")");
         }
 
-        orderedQuantity.setId(UUID.randomUUID());
-        orderedQuantity.setPlanId(UUID.fromString(planId));
+        // Id di-generate saat persist; id yang diisi manual membuat save() jadi merge (SELECT dulu, dan
+        // Hibernate 6.6 menganggapnya entity yang sudah dihapus)
+        orderedQuantity.setId(null);
+        orderedQuantity.setPlanId(planId);
         orderedQuantity.setQuota(activity.getCapacity());
         orderedQuantity.setPrice(activity.getPrice());
         orderedQuantity.setActivityName(activity.getActivityName());
@@ -124,8 +141,10 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
         orderedQuantity.setEndDate(activity.getEndDate());
 
         OrderedQuantity saved = orderedQuantityRepository.save(orderedQuantity);
+        packageVendorService.orderedQuantityAdded(pkg.getId(), activity.getVendorId());
 
-        updatePlanStatusAndPrice(planId, pkg.getQuota());
+        planOrderedQuantities.add(saved);
+        updatePlanStatusAndPrice(plan, pkg.getQuota(), planOrderedQuantities);
 
         return saved;
     }
@@ -146,13 +165,17 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
 
         Plan plan = planOptional.get();
 
-        // Check package status
         Optional<Package> pkgOpt = packageRepository.findById(plan.getPackageId());
         if (pkgOpt.isEmpty()) {
             throw new IllegalArgumentException("Package not found");
         }
 
-        Package pkg = pkgOpt.get();
+        return updateOrderedQuantity(oq, plan, pkgOpt.get(), newQuota);
+    }
+
+    @Override
+    public OrderedQuantity updateOrderedQuantity(OrderedQuantity oq, Plan plan, Package pkg, Integer newQuota) {
+        // Check package status
         if (!"Pending".equals(pkg.getStatus())) {
             throw new IllegalStateException("Can only update ordered quantity for Pending packages");
         }
@@ -168,8 +191,13 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
         }
 
         // Check total ordered quantity doesn't exceed package quota
-        int currentTotal = orderedQuantityRepository.findByPlanId(oq.getPlanId()).stream()
-                .filter(item -> !item.getId().equals(UUID.fromString(id))) // exclude current
+        List<OrderedQuantity> planOrderedQuantities = new ArrayList<>();
+        for (OrderedQuantity item : orderedQuantityRepository.findByPlanId(oq.getPlanId())) {
+            if (!item.getId().equals(oq.getId())) { // exclude current
+                planOrderedQuantities.add(item);
+            }
+        }
+        int currentTotal = planOrderedQuantities.stream()
                 .mapToInt(OrderedQuantity::getOrderedQuota)
                 .sum();
 
@@ -182,7 +210,8 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
         OrderedQuantity saved = orderedQuantityRepository.save(oq);
 
         // Update plan status & price after updating
-        updatePlanStatusAndPrice(oq.getPlanId().toString(), pkg.getQuota());
+        planOrderedQuantities.add(saved);
+        updatePlanStatusAndPrice(plan, pkg.getQuota(), planOrderedQuantities);
 
         return saved;
     }
@@ -205,21 +234,34 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
 
         Plan plan = planOptional.get();
 
-        // Check package status
         Optional<Package> pkgOpt = packageRepository.findById(plan.getPackageId());
         if (pkgOpt.isEmpty()) {
             throw new IllegalArgumentException("Package not found");
         }
 
-        Package pkg = pkgOpt.get();
+        return deleteOrderedQuantity(oq, plan, pkgOpt.get());
+    }
+
+    @Override
+    public boolean deleteOrderedQuantity(OrderedQuantity oq, Plan plan, Package pkg) {
+        // Check package status
         if (!"Pending".equals(pkg.getStatus())) {
             throw new IllegalStateException("Can only delete ordered quantity from Pending packages");
         }
 
-        orderedQuantityRepository.deleteById(UUID.fromString(id));
+        // Sisa OQ dibaca sebelum delete, jadi tidak perlu query ulang untuk status & price plan
+        List<OrderedQuantity> remaining = new ArrayList<>();
+        for (OrderedQuantity item : orderedQuantityRepository.findByPlanId(plan.getId())) {
+            if (!item.getId().equals(oq.getId())) {
+                remaining.add(item);
+            }
+        }
+
+        orderedQuantityRepository.deleteById(oq.getId());
+        packageVendorService.orderedQuantitiesRemoved(pkg.getId(), List.of(oq));
 
         // Update plan status & price after deleting
-        updatePlanStatusAndPrice(oq.getPlanId().toString(), pkg.getQuota());
+        updatePlanStatusAndPrice(plan, pkg.getQuota(), remaining);
 
         return true;
     }
@@ -235,21 +277,17 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
         return totalPrice != null ? totalPrice : 0L;
     }
 
-    private void updatePlanStatusAndPrice(String planId, int packageQuota) {
-        Optional<Plan> planOpt = planRepository.findById(UUID.fromString(planId));
-        if (planOpt.isEmpty()) {
-            return;
-        }
-
-        Plan plan = planOpt.get();
-
+    // Status & price plan dihitung dari OQ yang sudah dibaca caller, bukan query findByPlanId + SUM lagi
+    private void updatePlanStatusAndPrice(Plan plan, int packageQuota, List<OrderedQuantity> planOrderedQuantities) {
         // Calculate total ordered quantity
-        int totalOrderedQuantity = orderedQuantityRepository.findByPlanId(UUID.fromString(planId)).stream()
+        int totalOrderedQuantity = planOrderedQuantities.stream()
                 .mapToInt(OrderedQuantity::getOrderedQuota)
                 .sum();
 
         // Calculate total price
-        Long totalPrice = calculateTotalPriceForPlan(planId);
+        long totalPrice = planOrderedQuantities.stream()
+                .mapToLong(OrderedQuantity::getTotalPrice)
+                .sum();
         plan.setPrice(totalPrice);
 
         if (totalOrderedQuantity >= packageQuota) {
@@ -261,5 +299,6 @@ public class OrderedQuantityServiceImpl implements OrderedQuantityService {
         }
 
         planRepository.save(plan);
+        revenueRollupService.refreshPlan(plan);
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
+import apap.ti._5.tour_package_2306165963_be.dto.packagedto.PackageSummaryView;
+import apap.ti._5.tour_package_2306165963_be.dto.rest.CursorPageDto;
 import apap.ti._5.tour_package_2306165963_be.model.Package;
 
 import java.util.List;
@@ -19,4 +21,15 @@ public interface PackageService {
     List<Package> getPackagesByVendorId(String vendorId);
     Package getPackageDetail(String packageId, String userId, String role);
     List<Package> getAllPackagesWithRBAC(String userId, String role);
-}
\ No newline at end of file
+
+    // Keyset pagination (cursor dari response sebelumnya, null = halaman pertama)
+    CursorPageDto<Package> getPackagesPage(String cursor, Integer size);
+    CursorPageDto<Package> getPackagesPageByUserId(String userId, String cursor, Integer size);
+    CursorPageDto<Package> getPackagesPageByStatus(String status, String cursor, Integer size);
+
+    // Summary projection untuk list view (tanpa plan tree); REST selalu lewat varian page
+    List<PackageSummaryView> getAllPackageSummaries();
+    CursorPageDto<PackageSummaryView> getPackageSummariesPage(String cursor, Integer size);
+    CursorPageDto<PackageSummaryView> getPackageSummariesPageByUserId(String userId, String cursor, Integer size);
+    CursorPageDto<PackageSummaryView> getPackageSummariesPageByStatus(String status, String cursor, Integer size);
+}
@@ -1,26 +1,34 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
-import apap.ti._5.tour_package_2306165963_be.model.Activity;
-import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.dto.packagedto.PackageSummaryView;
+import apap.ti._5.tour_package_2306165963_be.dto.rest.CursorPageDto;
 import apap.ti._5.tour_package_2306165963_be.model.Package;
-import apap.ti._5.tour_package_2306165963_be.model.Plan;
-import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
 import apap.ti._5.tour_package_2306165963_be.repository.PackageRepository;
 import apap.ti._5.tour_package_2306165963_be.repository.PlanRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @Transactional
 public class PackageServiceImpl implements PackageService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final String UNDATED_CURSOR = "-";
+
     @Autowired
     private PackageRepository packageRepository;
 
@@ -28,11 +36,20 @@ public class PackageServiceImpl implements PackageService {
     private PlanRepository planRepository;
 
     @Autowired
-    private ActivityRepository activityRepository;
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private CapacityReservationService capacityReservationService;
+
+    @Autowired
+    private IdSequenceService idSequenceService;
+
+    @Autowired
+    private PackageVendorService packageVendorService;
 
     @Override
     public List<Package> getAllPackages() {
-        return packageRepository.findAll();
+        return packageRepository.findAllWithPlanTree();
     }
 
     @Override
@@ -77,7 +94,10 @@ public class PackageServiceImpl implements PackageService {
         existing.setStartDate(packageEntity.getStartDate());
         existing.setEndDate(packageEntity.getEndDate());
 
-        return packageRepository.save(existing);
+        Package saved = packageRepository.save(existing);
+        // startDate menentukan bucket bulan revenue, jadi kontribusi plan dihitung ulang
+        revenueRollupService.refreshPackage(saved.getId());
+        return saved;
     }
 
     @Override
@@ -134,27 +154,8 @@ public class PackageServiceImpl implements PackageService {
                             "Unfulfilled plans: " + unfulfilledPlans);
         }
 
-        for (Plan plan : packageEntity.getPlans()) {
-            for (OrderedQuantity oq : plan.getOrderedQuantities()) {
-                if (oq.getOrderedQuota() > oq.getQuota()) {
-                    throw new IllegalStateException(
-                            "OrderedQuantity exceeds Activity Capacity for activity: " + oq.getActivityName());
-                }
-
-                // Reduce capacity
-                Optional<Activity> activityOpt = activityRepository.findById(oq.getActivityId());
-                if (activityOpt.isPresent()) {
-                    Activity activity = activityOpt.get();
-                    int newCapacity = activity.getCapacity() - oq.getOrderedQuota();
-                    if (newCapacity < 0) {
-                        throw new IllegalStateException(
-                                "Not enough capacity for activity: " + activity.getActivityName());
-                    }
-                    activity.setCapacity(newCapacity);
-                    activityRepository.save(activity);
-                }
-            }
-        }
+        // Reduce capacity: activity di-lock FOR UPDATE + ledger, rollback kalau salah satu tidak cukup
+        capacityReservationService.reservePackage(packageEntity);
 
         // Calculate total package price from all fulfilled plans
         long totalPrice = packageEntity.getPlans().stream()
@@ -187,13 +188,13 @@ public class PackageServiceImpl implements PackageService {
     // NEW: Get package detail with RBAC
     @Override
     public Package getPackageDetail(String packageId, String userId, String role) {
-        Package pkg = packageRepository.findById(packageId)
+        Package pkg = packageRepository.findWithPlanTreeById(packageId)
                 .orElseThrow(() -> new IllegalArgumentException("Package not found"));
 
         // RBAC Logic
         boolean isOwner = pkg.getUserId().equals(userId);
         boolean isSuperadmin = "Superadmin".equals(role);
-        boolean isVendor = "TourPackageVendor".equals(role) && packageHasVendorActivity(pkg, userId);
+        boolean isVendor = "TourPackageVendor".equals(role) && packageVendorService.isVendorOfPackage(pkg.getId(), userId);
 
         if (!isOwner && !isSuperadmin && !isVendor) {
             throw new IllegalStateException("You don't have access to this package");
@@ -207,13 +208,115 @@ public class PackageServiceImpl implements PackageService {
     public List<Package> getAllPackagesWithRBAC(String userId, String role) {
         if ("Superadmin".equals(role) || "TourPackageVendor".equals(role)) {
             // Superadmin dan Vendor bisa lihat semua
-            return packageRepository.findAll();
+            return packageRepository.findAllWithPlanTree();
         } else {
             // Customer cuma bisa lihat miliknya sendiri + yang dibuat vendor
             return packageRepository.findByUserIdOrIsPublic(userId);
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<Package> getPackagesPage(String cursor, Integer size) {
+        int limit = pageSize(size);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toPage(packageRepository.findFirstPage(page), limit);
+        }
+        PackageCursor after = decodeCursor(cursor);
+        if (after.startDate() == null) {
+            return toPage(packageRepository.findUndatedPageAfter(after.id(), page), limit);
+        }
+        return toPage(packageRepository.findPageAfter(after.startDate(), after.id(), page), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<Package> getPackagesPageByUserId(String userId, String cursor, Integer size) {
+        int limit = pageSize(size);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toPage(packageRepository.findFirstPageByUserId(userId, page), limit);
+        }
+        PackageCursor after = decodeCursor(cursor);
+        if (after.startDate() == null) {
+            return toPage(packageRepository.findUndatedPageByUserIdAfter(userId, after.id(), page), limit);
+        }
+        return toPage(packageRepository.findPageByUserIdAfter(userId, after.startDate(), after.id(), page), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<Package> getPackagesPageByStatus(String status, String cursor, Integer size) {
+        int limit = pageSize(size);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toPage(packageRepository.findFirstPageByStatus(status, page), limit);
+        }
+        PackageCursor after = decodeCursor(cursor);
+        if (after.startDate() == null) {
+            return toPage(packageRepository.findUndatedPageByStatusAfter(status, after.id(), page), limit);
+        }
+        return toPage(packageRepository.findPageByStatusAfter(status, after.startDate(), after.id(), page), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PackageSummaryView> getAllPackageSummaries() {
+        return packageRepository.findAllSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PackageSummaryView> getPackageSummariesPage(String cursor, Integer size) {
+        int limit = pageSize(size);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toSummaryPage(packageRepository.findFirstSummaryPage(page), limit);
+        }
+        PackageCursor after = decodeCursor(cursor);
+        if (after.startDate() == null) {
+            return toSummaryPage(packageRepository.findUndatedSummaryPageAfter(after.id(), page), limit);
+        }
+        return toSummaryPage(packageRepository.findSummaryPageAfter(after.startDate(), after.id(), page), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PackageSummaryView> getPackageSummariesPageByUserId(String userId, String cursor,
+                                                                             Integer size) {
+        int limit = pageSize(size);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toSummaryPage(packageRepository.findFirstSummaryPageByUserId(userId, page), limit);
+        }
+        PackageCursor after = decodeCursor(cursor);
+        if (after.startDate() == null) {
+            return toSummaryPage(packageRepository.findUndatedSummaryPageByUserIdAfter(userId, after.id(), page),
+                    limit);
+        }
+        return toSummaryPage(packageRepository.findSummaryPageByUserIdAfter(userId, after.startDate(), after.id(),
+                page), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<PackageSummaryView> getPackageSummariesPageByStatus(String status, String cursor,
+                                                                             Integer size) {
+        int limit = pageSize(size);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        if (cursor == null || cursor.isBlank()) {
+            return toSummaryPage(packageRepository.findFirstSummaryPageByStatus(status, page), limit);
+        }
+        PackageCursor after = decodeCursor(cursor);
+        if (after.startDate() == null) {
+            return toSummaryPage(packageRepository.findUndatedSummaryPageByStatusAfter(status, after.id(), page),
+                    limit);
+        }
+        return toSummaryPage(packageRepository.findSummaryPageByStatusAfter(status, after.startDate(), after.id(),
+                page), limit);
+    }
+
     // Helper methods
     private void validatePackage(Package packageEntity) {
         if (packageEntity.getEndDate().isBefore(packageEntity.getStartDate())) {
@@ -237,27 +340,69 @@ public class PackageServiceImpl implements PackageService {
         }
     }
 
-    private boolean packageHasVendorActivity(Package pkg, String vendorId) {
-        if (pkg.getPlans() == null) {
-            return false;
+    private String generatePackageId(String userId) {
+        // Counter per user; count(*) hanya dipakai sekali untuk seed user yang belum punya counter
+        long sequence = idSequenceService.nextValue("package:" + userId,
+                () -> packageRepository.countByUserId(userId));
+        return String.format("PACK-%s-%03d", userId, sequence);
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be greater than 0");
         }
-        // Check if any ordered quantity's activity belongs to this vendor
-        // You need to fetch activity details to check vendorId
-        return pkg.getPlans().stream()
-                .filter(plan -> plan.getOrderedQuantities() != null)
-                .flatMap(plan -> plan.getOrderedQuantities().stream())
-                .map(OrderedQuantity::getActivityId)
-                .distinct()
-                .anyMatch(activityId -> isActivityOwnedByVendor(activityId, vendorId));
+        return Math.min(size, MAX_PAGE_SIZE);
     }
 
-    private boolean isActivityOwnedByVendor(String activityId, String vendorId) {
-        Optional<Activity> activity = activityRepository.findById(activityId);
-        return activity.map(value -> value.getVendorId().equals(vendorId)).orElse(false);
+    private CursorPageDto<Package> toPage(List<Package> rows, int limit) {
+        return toPage(rows, limit, PackageServiceImpl::encodeCursor);
     }
 
-    private String generatePackageId(String userId) {
-        long count = packageRepository.countByUserId(userId);
-        return String.format("PACK-%s-%03d", userId, count + 1);
+    private CursorPageDto<PackageSummaryView> toSummaryPage(List<PackageSummaryView> rows, int limit) {
+        return toPage(rows, limit, last -> encodeCursor(last.getStartDate(), last.getId()));
+    }
+
+    // Ambil limit + 1 row: row ekstra hanya penanda masih ada halaman berikutnya
+    private static <T> CursorPageDto<T> toPage(List<T> rows, int limit, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > limit;
+        List<T> items = hasNext ? rows.subList(0, limit) : rows;
+        String next = hasNext ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return CursorPageDto.<T>builder()
+                .items(items)
+                .next(next)
+                .size(items.size())
+                .build();
+    }
+
+    static String encodeCursor(Package last) {
+        return encodeCursor(last.getStartDate(), last.getId());
+    }
+
+    // Format "<startDate>|<id>", startDate null ditulis sebagai UNDATED_CURSOR
+    static String encodeCursor(LocalDateTime lastStartDate, String lastId) {
+        String startDate = lastStartDate != null ? lastStartDate.toString() : UNDATED_CURSOR;
+        String raw = startDate + "|" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static PackageCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String startDate = raw.substring(0, separator);
+            return new PackageCursor(UNDATED_CURSOR.equals(startDate) ? null : LocalDateTime.parse(startDate),
+                    raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    record PackageCursor(LocalDateTime startDate, String id) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+
+import java.util.Collection;
+
+public interface PackageVendorService {
+    void orderedQuantityAdded(String packageId, String vendorId);
+    void orderedQuantitiesRemoved(String packageId, Collection<OrderedQuantity> removed);
+    boolean isVendorOfPackage(String packageId, String vendorId);
+}
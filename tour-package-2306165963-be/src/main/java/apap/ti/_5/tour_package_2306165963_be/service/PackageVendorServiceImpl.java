@@ -0,0 +1,72 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.PackageVendorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class PackageVendorServiceImpl implements PackageVendorService {
+
+    @Autowired
+    private PackageVendorRepository packageVendorRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Override
+    public void orderedQuantityAdded(String packageId, String vendorId) {
+        if (packageId == null || vendorId == null) {
+            return;
+        }
+        packageVendorRepository.increment(packageId, vendorId, 1);
+    }
+
+    @Override
+    public void orderedQuantitiesRemoved(String packageId, Collection<OrderedQuantity> removed) {
+        if (packageId == null || removed == null || removed.isEmpty()) {
+            return;
+        }
+
+        // Vendor semua activity di-resolve dengan satu query
+        Set<String> activityIds = removed.stream()
+                .map(OrderedQuantity::getActivityId)
+                .collect(Collectors.toSet());
+        Map<String, String> vendorByActivity = activityRepository.findAllById(activityIds).stream()
+                .filter(activity -> activity.getVendorId() != null)
+                .collect(Collectors.toMap(Activity::getId, Activity::getVendorId));
+
+        // TreeMap supaya urutan update baris selalu sama (hindari deadlock antar transaksi)
+        Map<String, Integer> countByVendor = new TreeMap<>();
+        for (OrderedQuantity oq : removed) {
+            String vendorId = vendorByActivity.get(oq.getActivityId());
+            if (vendorId != null) {
+                countByVendor.merge(vendorId, 1, Integer::sum);
+            }
+        }
+
+        countByVendor.forEach((vendorId, count) -> {
+            packageVendorRepository.decrement(packageId, vendorId, count);
+            packageVendorRepository.deleteIfUnreferenced(packageId, vendorId);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isVendorOfPackage(String packageId, String vendorId) {
+        if (packageId == null || vendorId == null) {
+            return false;
+        }
+        return packageVendorRepository.existsByPackageIdAndVendorId(packageId, vendorId);
+    }
+}
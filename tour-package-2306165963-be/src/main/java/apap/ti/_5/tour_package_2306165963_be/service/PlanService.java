@@ -1,5 +1,6 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
+import apap.ti._5.tour_package_2306165963_be.model.Package;
 import apap.ti._5.tour_package_2306165963_be.model.Plan;
 
 import java.util.List;
@@ -11,6 +12,11 @@ public interface PlanService {
     Plan createPlan(String packageId, Plan plan);
     Plan updatePlan(Plan plan);
     boolean deletePlan(String id);
+    // Varian untuk caller yang sudah me-load plan & package (mis. untuk RBAC). createPlan butuh package;
+    // update/delete menerima package null (plan yatim), cek status dan tanggal package dilewati
+    Plan createPlan(Package packageEntity, Plan plan);
+    Plan updatePlan(Plan existing, Package packageEntity, Plan plan);
+    boolean deletePlan(Plan plan, Package packageEntity);
     void processPlan(String id);
     List<Plan> getPlansByPackageId(String packageId);
     Optional<Plan> getPlanWithOrderedQuantities(String id);
@@ -27,6 +27,12 @@ public class PlanServiceImpl implements PlanService {
     @Autowired
     private OrderedQuantityRepository orderedQuantityRepository;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private PackageVendorService packageVendorService;
+
     @Override
     public List<Plan> getAllPlans() {
         return planRepository.findAll();
@@ -49,8 +55,11 @@ public class PlanServiceImpl implements PlanService {
             throw new IllegalArgumentException("Package not found with ID: " + packageId);
         }
 
-        Package packageEntity = packageOptional.get();
+        return createPlan(packageOptional.get(), plan);
+    }
 
+    @Override
+    public Plan createPlan(Package packageEntity, Plan plan) {
         // Can only create plan for Pending packages
         if (!"Pending".equals(packageEntity.getStatus())) {
             throw new IllegalStateException("Can only create plan for Pending packages");
@@ -63,8 +72,8 @@ public class PlanServiceImpl implements PlanService {
             throw new IllegalArgumentException("Plan dates must be within package dates");
         }
 
-        plan.setId(UUID.randomUUID());
-        plan.setPackageId(packageId);
+        plan.setId(null); // Di-generate saat persist, lihat OrderedQuantityServiceImpl.createOrderedQuantity
+        plan.setPackageId(packageEntity.getId());
         plan.setStatus("Unfulfilled"); // Default status
 
         return planRepository.save(plan);
@@ -80,9 +89,12 @@ public class PlanServiceImpl implements PlanService {
         Plan existing = existingPlan.get();
 
         Optional<Package> packageOptional = packageRepository.findById(existing.getPackageId());
-        if (packageOptional.isPresent()) {
-            Package packageEntity = packageOptional.get();
+        return updatePlan(existing, packageOptional.orElse(null), plan);
+    }
 
+    @Override
+    public Plan updatePlan(Plan existing, Package packageEntity, Plan plan) {
+        if (packageEntity != null) {
             // Can only update if Package status = Pending
             if (!"Pending".equals(packageEntity.getStatus())) {
                 throw new IllegalStateException("Can only update plans for Pending packages");
@@ -103,7 +115,9 @@ public class PlanServiceImpl implements PlanService {
         existing.setStartLocation(plan.getStartLocation());
         existing.setEndLocation(plan.getEndLocation());
 
-        return planRepository.save(existing);
+        Plan saved = planRepository.save(existing);
+        revenueRollupService.refreshPlan(saved);
+        return saved;
     }
 
     @Override
@@ -117,15 +131,22 @@ public class PlanServiceImpl implements PlanService {
         Plan plan = planOptional.get();
 
         Optional<Package> packageOptional = packageRepository.findById(plan.getPackageId());
-        if (packageOptional.isPresent()) {
-            // Can only delete if Package status = Pending
-            if (!"Pending".equals(packageOptional.get().getStatus())) {
-                throw new IllegalStateException("Can only delete plans for Pending packages");
-            }
-        }
+        return deletePlan(plan, packageOptional.orElse(null));
+    }
 
-        orderedQuantityRepository.deleteByPlanId(UUID.fromString(id));
-        planRepository.deleteById(UUID.fromString(id));
+    @Override
+    public boolean deletePlan(Plan plan, Package packageEntity) {
+        // Can only delete if Package status = Pending
+        if (packageEntity != null && !"Pending".equals(packageEntity.getStatus())) {
+            throw new IllegalStateException("Can only delete plans for Pending packages");
+        }
+
+        UUID planId = plan.getId();
+        packageVendorService.orderedQuantitiesRemoved(plan.getPackageId(),
+                orderedQuantityRepository.findByPlanId(planId));
+        orderedQuantityRepository.deleteByPlanId(planId);
+        planRepository.deleteById(planId);
+        revenueRollupService.removePlan(planId);
         return true;
     }
 
@@ -173,6 +194,7 @@ public class PlanServiceImpl implements PlanService {
         }
 
         planRepository.save(plan);
+        revenueRollupService.refreshPlan(plan);
     }
 
     @Override
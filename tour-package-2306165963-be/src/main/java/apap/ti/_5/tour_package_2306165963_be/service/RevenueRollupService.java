@@ -0,0 +1,29 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+
+import java.util.UUID;
+
+public interface RevenueRollupService {
+
+    /**
+     * Recompute the contribution of a plan and apply the delta to the revenue buckets.
+     * Dipanggil setiap kali status, harga, atau ordered quantities sebuah Plan berubah.
+     */
+    void refreshPlan(Plan plan);
+
+    /**
+     * Recompute every plan of a package (misal saat startDate package berubah, bucket bulan ikut pindah).
+     */
+    void refreshPackage(String packageId);
+
+    /**
+     * Remove the contribution of a deleted plan from the buckets.
+     */
+    void removePlan(UUID planId);
+
+    /**
+     * Rebuild all buckets from scratch.
+     */
+    void rebuildAll();
+}
@@ -0,0 +1,275 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.model.PlanRevenueContribution;
+import apap.ti._5.tour_package_2306165963_be.model.RevenueRollup;
+import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.OrderedQuantityRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.PackageRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.PlanRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.PlanRevenueContributionRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.RevenueRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Transactional
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    // Bucket untuk OrderedQuantity yang activity-nya tidak punya vendor
+    public static final String UNKNOWN_VENDOR = "-";
+
+    // Bucket tahun/bulan untuk Package tanpa startDate; tidak pernah cocok dengan filter tahun di statistik
+    public static final int UNDATED = 0;
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private PlanRevenueContributionRepository contributionRepository;
+
+    @Autowired
+    private PackageRepository packageRepository;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private OrderedQuantityRepository orderedQuantityRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Value("${tour_package.statistics.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Override
+    public void refreshPlan(Plan plan) {
+        if (plan == null || plan.getId() == null) {
+            return;
+        }
+
+        Optional<Package> pkgOpt = plan.getPackageId() != null
+                ? packageRepository.findById(plan.getPackageId())
+                : Optional.empty();
+
+        Map<BucketKey, Long> contributions = Map.of();
+        if (pkgOpt.isPresent() && "Fulfilled".equals(plan.getStatus())) {
+            List<OrderedQuantity> orderedQuantities = orderedQuantityRepository.findByPlanId(plan.getId());
+            contributions = computeContributions(pkgOpt.get(), plan, orderedQuantities,
+                    vendorsOf(orderedQuantities));
+        }
+
+        replaceContributions(plan.getId(), plan.getPackageId(), contributions);
+    }
+
+    @Override
+    public void refreshPackage(String packageId) {
+        for (Plan plan : planRepository.findByPackageId(packageId)) {
+            refreshPlan(plan);
+        }
+    }
+
+    @Override
+    public void removePlan(UUID planId) {
+        replaceContributions(planId, null, Map.of());
+    }
+
+    @Override
+    public void rebuildAll() {
+        contributionRepository.deleteAllInBatch();
+        revenueRollupRepository.deleteAllInBatch();
+
+        List<Plan> fulfilledPlans = planRepository.findByStatus("Fulfilled");
+        if (fulfilledPlans.isEmpty()) {
+            return;
+        }
+
+        Set<String> packageIds = fulfilledPlans.stream()
+                .map(Plan::getPackageId)
+                .collect(Collectors.toSet());
+        Map<String, Package> packages = packageRepository.findAllById(packageIds).stream()
+                .collect(Collectors.toMap(Package::getId, Function.identity()));
+
+        List<OrderedQuantity> allOrderedQuantities = orderedQuantityRepository.findByPlanIdIn(
+                fulfilledPlans.stream().map(Plan::getId).collect(Collectors.toSet()));
+        Map<UUID, List<OrderedQuantity>> orderedQuantitiesByPlan = allOrderedQuantities.stream()
+                .collect(Collectors.groupingBy(OrderedQuantity::getPlanId));
+        Map<String, String> vendorByActivity = vendorsOf(allOrderedQuantities);
+
+        Map<BucketKey, Long> totals = new HashMap<>();
+        List<PlanRevenueContribution> rows = new ArrayList<>();
+
+        for (Plan plan : fulfilledPlans) {
+            Package pkg = packages.get(plan.getPackageId());
+            if (pkg == null) {
+                continue;
+            }
+
+            Map<BucketKey, Long> contributions = computeContributions(pkg, plan,
+                    orderedQuantitiesByPlan.getOrDefault(plan.getId(), List.of()), vendorByActivity);
+
+            contributions.forEach((key, revenue) -> {
+                totals.merge(key, revenue, Long::sum);
+                rows.add(toContribution(plan.getId(), plan.getPackageId(), key, revenue));
+            });
+        }
+
+        contributionRepository.saveAll(rows);
+        revenueRollupRepository.saveAll(totals.entrySet().stream()
+                .map(entry -> toRollup(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        rebuildAll();
+        log.info("✅ Revenue rollup rebuilt");
+    }
+
+    /**
+     * Hitung kontribusi revenue satu Plan per bucket. Aturannya sama dengan statistik lama:
+     * hanya Plan berstatus Fulfilled, dikelompokkan berdasarkan tahun/bulan startDate Package.
+     * Package tanpa startDate masuk bucket {@link #UNDATED} (tahun dan bulan 0), jadi revenue-nya tetap
+     * tercatat di rollup tapi tidak ikut statistik tahunan/bulanan mana pun.
+     */
+    public static Map<BucketKey, Long> computeContributions(Package pkg, Plan plan,
+            Collection<OrderedQuantity> orderedQuantities, Map<String, String> vendorByActivity) {
+        if (!"Fulfilled".equals(plan.getStatus())) {
+            return Map.of();
+        }
+
+        int year = pkg.getStartDate() != null ? pkg.getStartDate().getYear() : UNDATED;
+        int month = pkg.getStartDate() != null ? pkg.getStartDate().getMonthValue() : UNDATED;
+        String activityType = normalizeActivityType(plan.getActivityType());
+
+        Map<BucketKey, Long> contributions = new HashMap<>();
+        for (OrderedQuantity oq : orderedQuantities) {
+            long revenue = oq.getTotalPrice();
+            if (revenue == 0L) {
+                continue;
+            }
+
+            String vendorId = vendorByActivity.get(oq.getActivityId());
+            if (vendorId == null) {
+                vendorId = UNKNOWN_VENDOR;
+            }
+
+            contributions.merge(new BucketKey(year, month, activityType, vendorId), revenue, Long::sum);
+        }
+        return contributions;
+    }
+
+    public static String normalizeActivityType(String activityType) {
+        if (activityType == null) {
+            return "Unknown";
+        }
+        if ("Vehicle".equalsIgnoreCase(activityType)) {
+            return "Vehicle Rental";
+        }
+        return activityType;
+    }
+
+    // Helper methods
+    private void replaceContributions(UUID planId, String packageId, Map<BucketKey, Long> contributions) {
+        List<PlanRevenueContribution> existing = contributionRepository.findByPlanId(planId);
+
+        Map<BucketKey, Long> delta = new HashMap<>();
+        for (PlanRevenueContribution contribution : existing) {
+            delta.merge(keyOf(contribution), -contribution.getRevenue(), Long::sum);
+        }
+        contributions.forEach((key, revenue) -> delta.merge(key, revenue, Long::sum));
+
+        if (delta.values().stream().allMatch(value -> value == 0L)) {
+            return;
+        }
+
+        delta.forEach(this::applyDelta);
+
+        if (!existing.isEmpty()) {
+            contributionRepository.deleteAll(existing);
+        }
+        contributionRepository.saveAll(contributions.entrySet().stream()
+                .map(entry -> toContribution(planId, packageId, entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList()));
+    }
+
+    private void applyDelta(BucketKey key, long delta) {
+        if (delta == 0L) {
+            return;
+        }
+
+        // id hanya terpakai kalau bucket belum ada
+        revenueRollupRepository.addToBucket(UUID.randomUUID(), key.year(), key.month(), key.activityType(),
+                key.vendorId(), delta);
+    }
+
+    private Map<String, String> vendorsOf(Collection<OrderedQuantity> orderedQuantities) {
+        Set<String> activityIds = orderedQuantities.stream()
+                .map(OrderedQuantity::getActivityId)
+                .collect(Collectors.toSet());
+        if (activityIds.isEmpty()) {
+            return Map.of();
+        }
+
+        // HashMap karena vendorId boleh null
+        Map<String, String> vendorByActivity = new HashMap<>();
+        for (Activity activity : activityRepository.findAllById(activityIds)) {
+            vendorByActivity.put(activity.getId(), activity.getVendorId());
+        }
+        return vendorByActivity;
+    }
+
+    private BucketKey keyOf(PlanRevenueContribution contribution) {
+        return new BucketKey(contribution.getRevenueYear(), contribution.getRevenueMonth(),
+                contribution.getActivityType(), contribution.getVendorId());
+    }
+
+    private PlanRevenueContribution toContribution(UUID planId, String packageId, BucketKey key, long revenue) {
+        return PlanRevenueContribution.builder()
+                .planId(planId)
+                .packageId(packageId)
+                .revenueYear(key.year())
+                .revenueMonth(key.month())
+                .activityType(key.activityType())
+                .vendorId(key.vendorId())
+                .revenue(revenue)
+                .build();
+    }
+
+    private RevenueRollup toRollup(BucketKey key, long revenue) {
+        return RevenueRollup.builder()
+                .revenueYear(key.year())
+                .revenueMonth(key.month())
+                .activityType(key.activityType())
+                .vendorId(key.vendorId())
+                .revenue(revenue)
+                .build();
+    }
+
+    public record BucketKey(int year, int month, String activityType, String vendorId) {
+    }
+}
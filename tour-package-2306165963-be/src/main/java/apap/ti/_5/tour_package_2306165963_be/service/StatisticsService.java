@@ -1,5 +1,7 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
+import apap.ti._5.tour_package_2306165963_be.dto.statistics.YearlyRevenueBreakdownDto;
+
 import java.util.Map;
 
 public interface StatisticsService {
@@ -14,4 +16,12 @@ public interface StatisticsService {
     Map<String, Long> getRevenueByActivityType(Integer year, Integer month);
 
     Map<Integer, Long> getYearlyRevenue(Integer year);
-}
\ No newline at end of file
+
+    /**
+     * Get the full (month x activity type) revenue matrix of a year in a single pass
+     *
+     * @param year Filter by year
+     * @return monthly totals, per activity type totals, and the matrix itself
+     */
+    YearlyRevenueBreakdownDto getYearlyRevenueBreakdown(Integer year);
+}
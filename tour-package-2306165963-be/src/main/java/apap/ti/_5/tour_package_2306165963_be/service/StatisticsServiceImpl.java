@@ -1,21 +1,23 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
-import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
-import apap.ti._5.tour_package_2306165963_be.model.Package;
-import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.dto.statistics.YearlyRevenueBreakdownDto;
+import apap.ti._5.tour_package_2306165963_be.repository.RevenueRollupRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
 @Service
+@Transactional(readOnly = true)
 public class StatisticsServiceImpl implements StatisticsService {
 
     @Autowired
-    private PackageService packageService;
+    private RevenueRollupRepository revenueRollupRepository;
 
     @Override
     public Map<String, Long> getRevenueByActivityType(Integer year, Integer month) {
@@ -25,43 +27,16 @@ public class StatisticsServiceImpl implements StatisticsService {
         revenueMap.put("Accommodation", 0L);
         revenueMap.put("Vehicle Rental", 0L);
 
-        List<Package> allPackages = packageService.getAllPackages();
+        // PBI-BE-T17: "Data diambil dari OrderedActivities yang sudah fulfilled"
+        // Bucket sudah di-maintain oleh RevenueRollupService, jadi cukup baca hasil agregasinya.
+        List<Object[]> rows = month != null
+                ? revenueRollupRepository.sumRevenueByActivityTypeAndMonth(year, month)
+                : revenueRollupRepository.sumRevenueByActivityType(year);
 
-        for (Package pkg : allPackages) {
-            // Only count processed packages (or Waiting for Payment if that's the status)
-            // The prompt says "Data diambil dari OrderedActivities yang sudah fulfilled"
-            // But usually we check package status too.
-            // PBI-BE-T17: "Data diambil dari OrderedActivities yang sudah fulfilled"
-            // So we check Plan status = Fulfilled.
-
-            // Check year
-            if (pkg.getStartDate() != null && pkg.getStartDate().getYear() != year) {
-                continue;
-            }
-
-            // Check month if provided
-            if (month != null && pkg.getStartDate() != null &&
-                    pkg.getStartDate().getMonthValue() != month) {
-                continue;
-            }
-
-            for (Plan plan : pkg.getPlans()) {
-                if (!"Fulfilled".equals(plan.getStatus())) {
-                    continue;
-                }
-
-                String activityType = plan.getActivityType();
-
-                if ("Vehicle".equalsIgnoreCase(activityType)) {
-                    activityType = "Vehicle Rental";
-                }
-
-                long planRevenue = plan.getOrderedQuantities().stream()
-                        .mapToLong(OrderedQuantity::getTotalPrice)
-                        .sum();
-
-                revenueMap.put(activityType, revenueMap.getOrDefault(activityType, 0L) + planRevenue);
-            }
+        for (Object[] row : rows) {
+            String activityType = (String) row[0];
+            long revenue = row[1] != null ? ((Number) row[1]).longValue() : 0L;
+            revenueMap.merge(activityType, revenue, Long::sum);
         }
 
         return revenueMap;
@@ -69,27 +44,47 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     @Override
     public Map<Integer, Long> getYearlyRevenue(Integer year) {
-        Map<Integer, Long> revenueMap = new TreeMap<>();
+        return getYearlyRevenueBreakdown(year).getMonthlyRevenue();
+    }
+
+    @Override
+    public YearlyRevenueBreakdownDto getYearlyRevenueBreakdown(Integer year) {
+        Map<Integer, Long> monthlyRevenue = new TreeMap<>();
+        Map<Integer, Map<String, Long>> breakdown = new TreeMap<>();
         for (int i = 1; i <= 12; i++) {
-            revenueMap.put(i, 0L);
+            monthlyRevenue.put(i, 0L);
+            breakdown.put(i, defaultActivityTypes());
         }
-
-        List<Package> allPackages = packageService.getAllPackages();
-
-        for (Package pkg : allPackages) {
-            if (pkg.getStartDate() != null && pkg.getStartDate().getYear() == year) {
-                for (Plan plan : pkg.getPlans()) {
-                    if ("Fulfilled".equals(plan.getStatus())) {
-                        int month = pkg.getStartDate().getMonthValue();
-                        long planRevenue = plan.getOrderedQuantities().stream()
-                                .mapToLong(OrderedQuantity::getTotalPrice)
-                                .sum();
-                        revenueMap.put(month, revenueMap.getOrDefault(month, 0L) + planRevenue);
-                    }
-                }
-            }
+        Map<String, Long> revenueByActivityType = defaultActivityTypes();
+        long totalRevenue = 0L;
+
+        // Satu grouped query untuk seluruh tahun, bukan 12 query per bulan
+        for (Object[] row : revenueRollupRepository.sumRevenueByMonthAndActivityType(year)) {
+            int month = ((Number) row[0]).intValue();
+            String activityType = (String) row[1];
+            long revenue = row[2] != null ? ((Number) row[2]).longValue() : 0L;
+
+            monthlyRevenue.merge(month, revenue, Long::sum);
+            breakdown.computeIfAbsent(month, m -> defaultActivityTypes()).merge(activityType, revenue, Long::sum);
+            revenueByActivityType.merge(activityType, revenue, Long::sum);
+            totalRevenue += revenue;
         }
 
+        return YearlyRevenueBreakdownDto.builder()
+                .year(year)
+                .monthlyRevenue(monthlyRevenue)
+                .revenueByActivityType(revenueByActivityType)
+                .breakdown(breakdown)
+                .totalRevenue(totalRevenue)
+                .build();
+    }
+
+    // Helper methods
+    private Map<String, Long> defaultActivityTypes() {
+        Map<String, Long> revenueMap = new LinkedHashMap<>();
+        revenueMap.put("Flight", 0L);
+        revenueMap.put("Accommodation", 0L);
+        revenueMap.put("Vehicle Rental", 0L);
         return revenueMap;
     }
-}
\ No newline at end of file
+}
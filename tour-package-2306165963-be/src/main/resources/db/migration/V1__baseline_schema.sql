@@ -0,0 +1,156 @@
+-- Baseline schema, sama dengan yang sebelumnya dibuat Hibernate (ddl-auto=create).
+-- IF NOT EXISTS supaya database lama yang sudah punya tabel bisa langsung di-baseline.
+
+CREATE TABLE IF NOT EXISTS activities (
+    id              VARCHAR(255) NOT NULL,
+    vendor_id       VARCHAR(255),
+    activity_name   VARCHAR(100) NOT NULL,
+    activity_item   VARCHAR(200) NOT NULL,
+    capacity        INTEGER      NOT NULL,
+    price           BIGINT       NOT NULL,
+    activity_type   VARCHAR(255) NOT NULL,
+    start_date      TIMESTAMP(6) NOT NULL,
+    end_date        TIMESTAMP(6) NOT NULL,
+    start_location  VARCHAR(100) NOT NULL,
+    end_location    VARCHAR(100) NOT NULL,
+    is_deleted      BOOLEAN      NOT NULL DEFAULT false,
+    CONSTRAINT activities_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS packages (
+    id              VARCHAR(255) NOT NULL,
+    user_id         VARCHAR(255),
+    package_name    VARCHAR(255),
+    quota           INTEGER      NOT NULL,
+    price           BIGINT,
+    status          VARCHAR(255),
+    start_date      TIMESTAMP(6),
+    end_date        TIMESTAMP(6),
+    is_deleted      BOOLEAN      NOT NULL DEFAULT false,
+    CONSTRAINT packages_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS plans (
+    id              UUID         NOT NULL,
+    package_id      VARCHAR(255),
+    price           BIGINT,
+    activity_type   VARCHAR(255),
+    status          VARCHAR(255),
+    start_date      TIMESTAMP(6),
+    end_date        TIMESTAMP(6),
+    start_location  VARCHAR(255),
+    end_location    VARCHAR(255),
+    CONSTRAINT plans_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_plans_package FOREIGN KEY (package_id) REFERENCES packages (id)
+);
+
+CREATE TABLE IF NOT EXISTS ordered_quantities (
+    id              UUID         NOT NULL,
+    plan_id         UUID,
+    activity_id     VARCHAR(255),
+    ordered_quota   INTEGER      NOT NULL,
+    quota           INTEGER      NOT NULL,
+    price           BIGINT,
+    activity_name   VARCHAR(255),
+    activity_item   VARCHAR(255),
+    start_date      TIMESTAMP(6),
+    end_date        TIMESTAMP(6),
+    CONSTRAINT ordered_quantities_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_ordered_quantities_plan FOREIGN KEY (plan_id) REFERENCES plans (id)
+);
+
+CREATE TABLE IF NOT EXISTS capacity_reservations (
+    id                  UUID         NOT NULL,
+    activity_id         VARCHAR(255) NOT NULL,
+    package_id          VARCHAR(255),
+    plan_id             UUID,
+    ordered_quantity_id UUID         NOT NULL,
+    quantity            INTEGER      NOT NULL,
+    reserved_at         TIMESTAMP(6),
+    CONSTRAINT capacity_reservations_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_capacity_reservations_oq UNIQUE (ordered_quantity_id)
+);
+CREATE INDEX IF NOT EXISTS idx_capacity_reservations_package ON capacity_reservations (package_id);
+
+CREATE TABLE IF NOT EXISTS revenue_rollups (
+    id              UUID         NOT NULL,
+    revenue_year    INTEGER      NOT NULL,
+    revenue_month   INTEGER      NOT NULL,
+    activity_type   VARCHAR(255) NOT NULL,
+    vendor_id       VARCHAR(255) NOT NULL,
+    revenue         BIGINT       NOT NULL,
+    CONSTRAINT revenue_rollups_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_revenue_rollups_bucket UNIQUE (revenue_year, revenue_month, activity_type, vendor_id)
+);
+
+CREATE TABLE IF NOT EXISTS plan_revenue_contributions (
+    id              UUID         NOT NULL,
+    plan_id         UUID         NOT NULL,
+    package_id      VARCHAR(255),
+    revenue_year    INTEGER      NOT NULL,
+    revenue_month   INTEGER      NOT NULL,
+    activity_type   VARCHAR(255) NOT NULL,
+    vendor_id       VARCHAR(255) NOT NULL,
+    revenue         BIGINT       NOT NULL,
+    CONSTRAINT plan_revenue_contributions_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS id_sequences (
+    sequence_key    VARCHAR(255) NOT NULL,
+    last_value      BIGINT       NOT NULL,
+    CONSTRAINT id_sequences_pkey PRIMARY KEY (sequence_key)
+);
+
+CREATE TABLE IF NOT EXISTS customer (
+    id              VARCHAR(255) NOT NULL,
+    name            VARCHAR(255),
+    loyalty_points  INTEGER,
+    CONSTRAINT customer_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS loyalty_coupons (
+    id              UUID         NOT NULL,
+    name            VARCHAR(255) NOT NULL,
+    description     TEXT,
+    points          INTEGER      NOT NULL,
+    percent_off     INTEGER      NOT NULL,
+    created_date    TIMESTAMP(6) NOT NULL,
+    updated_date    TIMESTAMP(6) NOT NULL,
+    CONSTRAINT loyalty_coupons_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS purchased_coupons (
+    id              UUID         NOT NULL,
+    code            VARCHAR(255) NOT NULL,
+    customer_id     UUID         NOT NULL,
+    coupon_id       UUID         NOT NULL,
+    purchased_date  TIMESTAMP(6) NOT NULL,
+    used_date       TIMESTAMP(6),
+    CONSTRAINT purchased_coupons_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_purchased_coupons_code UNIQUE (code)
+);
+
+CREATE TABLE IF NOT EXISTS loyalty_points (
+    customer_id     UUID         NOT NULL,
+    points          INTEGER      NOT NULL,
+    CONSTRAINT loyalty_points_pkey PRIMARY KEY (customer_id)
+);
+
+CREATE TABLE IF NOT EXISTS loyalty_points_ledger (
+    id              UUID         NOT NULL,
+    customer_id     UUID         NOT NULL,
+    delta           INTEGER      NOT NULL,
+    reason          VARCHAR(255) NOT NULL,
+    reference       VARCHAR(255),
+    created_date    TIMESTAMP(6) NOT NULL,
+    CONSTRAINT loyalty_points_ledger_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_loyalty_points_ledger_reference UNIQUE (reference)
+);
+CREATE INDEX IF NOT EXISTS idx_loyalty_ledger_customer ON loyalty_points_ledger (customer_id);
+CREATE INDEX IF NOT EXISTS idx_loyalty_ledger_created ON loyalty_points_ledger (created_date);
+
+-- Index pencarian activity (ActivitySpecifications)
+CREATE INDEX IF NOT EXISTS idx_activities_type_route_start
+    ON activities (activity_type, start_location, end_location, start_date);
+CREATE INDEX IF NOT EXISTS idx_activities_type_price ON activities (activity_type, price);
+CREATE INDEX IF NOT EXISTS idx_activities_vendor ON activities (vendor_id);
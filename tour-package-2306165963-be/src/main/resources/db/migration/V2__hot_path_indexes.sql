@@ -0,0 +1,33 @@
+-- Index untuk finder dan JPQL yang ada di *Repository.
+-- Kolom equality di depan, kolom range/sort di belakang, INCLUDE untuk query agregat yang cukup index-only.
+
+-- PlanRepository.findByPackageId / findByPackageIdAndStatus / countByPackageId, plus join Package -> plans
+CREATE INDEX IF NOT EXISTS idx_plans_package_status ON plans (package_id, status);
+
+-- OrderedQuantityRepository.findByPlanId / sumOrderedQuotaByPlanId / sumTotalPriceByPlanId, plus SUMMARY_SELECT
+CREATE INDEX IF NOT EXISTS idx_ordered_quantities_plan
+    ON ordered_quantities (plan_id) INCLUDE (ordered_quota, price);
+
+-- OrderedQuantityRepository.findByActivityId / existsByActivityId, PackageRepository.findPackagesByVendorId
+CREATE INDEX IF NOT EXISTS idx_ordered_quantities_activity ON ordered_quantities (activity_id, plan_id);
+
+-- PackageRepository keyset pagination: (startDate, id) dengan / tanpa filter user atau status
+CREATE INDEX IF NOT EXISTS idx_packages_start_id ON packages (start_date, id);
+CREATE INDEX IF NOT EXISTS idx_packages_user_start_id ON packages (user_id, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_packages_status_start_id ON packages (status, start_date, id);
+
+-- PurchasedCouponRepository.findByCustomerIdOrderByPurchasedDateDesc / findDetailsByCustomerId / countsByCustomerId
+CREATE INDEX IF NOT EXISTS idx_purchased_coupons_customer_date
+    ON purchased_coupons (customer_id, purchased_date DESC) INCLUDE (used_date);
+
+-- PurchasedCouponRepository.countByCustomerIdAndCouponId
+CREATE INDEX IF NOT EXISTS idx_purchased_coupons_customer_coupon ON purchased_coupons (customer_id, coupon_id);
+
+-- PurchasedCouponRepository.findCodesByPrefix (LIKE 'PREFIX-%')
+CREATE INDEX IF NOT EXISTS idx_purchased_coupons_code_pattern ON purchased_coupons (code varchar_pattern_ops);
+
+-- PlanRevenueContributionRepository.findByPlanId / deleteByPlanId
+CREATE INDEX IF NOT EXISTS idx_plan_revenue_contributions_plan ON plan_revenue_contributions (plan_id);
+
+-- CapacityReservationRepository.findByActivityId
+CREATE INDEX IF NOT EXISTS idx_capacity_reservations_activity ON capacity_reservations (activity_id);
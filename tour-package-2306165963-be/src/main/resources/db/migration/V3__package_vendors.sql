@@ -0,0 +1,22 @@
+-- Relasi vendor -> package yang di-maintain PackageVendorService setiap OrderedQuantity ditambah / dihapus.
+-- Menggantikan subquery Activity.vendorId di PackageRepository.findPackagesByVendorId dan cek RBAC vendor.
+
+CREATE TABLE IF NOT EXISTS package_vendors (
+    package_id      VARCHAR(255) NOT NULL,
+    vendor_id       VARCHAR(255) NOT NULL,
+    ref_count       INTEGER      NOT NULL,
+    CONSTRAINT package_vendors_pkey PRIMARY KEY (package_id, vendor_id)
+);
+
+-- Vendor "My Packages": range scan per vendor
+CREATE INDEX IF NOT EXISTS idx_package_vendors_vendor_package ON package_vendors (vendor_id, package_id);
+
+-- Backfill dari data yang sudah ada
+INSERT INTO package_vendors (package_id, vendor_id, ref_count)
+SELECT p.package_id, a.vendor_id, COUNT(*)
+FROM ordered_quantities oq
+JOIN plans p ON p.id = oq.plan_id
+JOIN activities a ON a.id = oq.activity_id
+WHERE a.vendor_id IS NOT NULL
+GROUP BY p.package_id, a.vendor_id
+ON CONFLICT (package_id, vendor_id) DO UPDATE SET ref_count = EXCLUDED.ref_count;
@@ -0,0 +1,99 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NPlusOneDetectorTest {
+
+    private SimpleMeterRegistry registry;
+    private NPlusOneDetector detector;
+    private final SqlStatementInspector inspector = new SqlStatementInspector();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        detector = new NPlusOneDetector(registry, true, 1.0, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestQueryStats.end();
+    }
+
+    @Test
+    void analyze_repeatedStatementShape_isReported() {
+        RequestQueryStats stats = RequestQueryStats.begin(true);
+        inspector.inspect("select p1_0.id from packages p1_0 where p1_0.id=?");
+        inspector.inspect("select p1_0.id from packages p1_0 where p1_0.id=?");
+        inspector.inspect("select a1_0.id from activities a1_0 where a1_0.id in (?,?,?)");
+
+        NPlusOneDetector.RequestReport report = detector.analyze("GET", "/api/packages/{id}", stats);
+
+        assertThat(report).isNotNull();
+        assertThat(report.statements()).isEqualTo(3);
+        assertThat(report.findings()).singleElement().satisfies(finding -> {
+            assertThat(finding.kind()).isEqualTo("repeated_statement");
+            assertThat(finding.count()).isEqualTo(2);
+            assertThat(finding.query()).contains("from packages");
+        });
+        assertThat(registry.get(NPlusOneDetector.FINDINGS_COUNTER).tag("route", "/api/packages/{id}")
+                .counter().count()).isEqualTo(1);
+        assertThat(detector.recentReports()).containsExactly(report);
+    }
+
+    @Test
+    void analyze_repeatedLazyCollection_isReported() {
+        RequestQueryStats stats = RequestQueryStats.begin(true);
+        stats.collectionInitialized("apap.ti._5.tour_package_2306165963_be.model.Plan.orderedQuantities");
+        stats.collectionInitialized("apap.ti._5.tour_package_2306165963_be.model.Plan.orderedQuantities");
+
+        NPlusOneDetector.RequestReport report = detector.analyze("GET", "/api/packages", stats);
+
+        assertThat(report.findings()).extracting(NPlusOneDetector.Finding::kind)
+                .containsExactly("lazy_collection_loop");
+    }
+
+    @Test
+    void analyze_unsampledOrCleanRequest_returnsNull() {
+        RequestQueryStats unsampled = RequestQueryStats.begin(false);
+        inspector.inspect("select 1");
+        inspector.inspect("select 1");
+        assertThat(detector.analyze("GET", "/api/plans/{id}", unsampled)).isNull();
+
+        RequestQueryStats clean = RequestQueryStats.begin(true);
+        inspector.inspect("select 1");
+        assertThat(detector.analyze("GET", "/api/plans/{id}", clean)).isNull();
+        assertThat(detector.recentReports()).isEmpty();
+    }
+
+    @Test
+    void recentReports_keepsOnlyMaxReportsNewestFirst() {
+        for (String route : new String[] {"/a", "/b", "/c"}) {
+            RequestQueryStats stats = RequestQueryStats.begin(true);
+            inspector.inspect("select 1");
+            inspector.inspect("select 1");
+            detector.analyze("GET", route, stats);
+        }
+
+        assertThat(detector.recentReports()).extracting(NPlusOneDetector.RequestReport::route)
+                .containsExactly("/c", "/b");
+    }
+
+    @Test
+    void shape_ignoresLiteralsAndInListLength() {
+        assertThat(QueryProfile.shape("select * from t1_0 where id = 42 and name = 'x''y' and c in (?, ?)"))
+                .isEqualTo(QueryProfile.shape("select *\n from t1_0 where id = 7 and name = 'z' and c in (?,?,?,?)"));
+    }
+
+    @Test
+    void shouldSample_disabled_neverSamples() {
+        NPlusOneDetector disabled = new NPlusOneDetector(registry, false, 1.0, 2, 2);
+
+        assertThat(disabled.shouldSample()).isFalse();
+        assertThat(detector.shouldSample()).isTrue();
+    }
+}
@@ -0,0 +1,76 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RequestMetricsFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private RequestMetricsFilter filter;
+    private final SqlStatementInspector inspector = new SqlStatementInspector();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new RequestMetricsFilter(registry, new NPlusOneDetector(registry, false, 0.0, 2, 10), 3);
+    }
+
+    @Test
+    void doFilter_recordsLatencyAndSqlCountByRouteTemplate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/packages/PKG-1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), statements("/api/packages/{id}", 2));
+
+        assertThat(registry.get(RequestMetricsFilter.REQUEST_TIMER)
+                .tag("route", "/api/packages/{id}").tag("method", "GET").tag("status", "200")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get(RequestMetricsFilter.SQL_STATEMENTS)
+                .tag("route", "/api/packages/{id}").summary().totalAmount()).isEqualTo(2);
+        assertThat(registry.find(RequestMetricsFilter.BUDGET_EXCEEDED).counter()).isNull();
+        assertThat(RequestQueryStats.current()).isNull();
+    }
+
+    @Test
+    void doFilter_countsRequestsOverQueryBudget() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/plans/PLN-1/ordered-quantities");
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                statements("/api/plans/{planId}/ordered-quantities", 4));
+
+        assertThat(registry.get(RequestMetricsFilter.BUDGET_EXCEEDED)
+                .tag("route", "/api/plans/{planId}/ordered-quantities").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_unmatchedRequest_usesPlaceholderRoute() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/unknown/123");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+        assertThat(registry.get(RequestMetricsFilter.REQUEST_TIMER)
+                .tag("route", RequestMetricsFilter.UNMATCHED_ROUTE).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void inspector_outsideRequest_isNoop() {
+        assertThat(inspector.inspect("select 1")).isEqualTo("select 1");
+        assertThat(RequestQueryStats.current()).isNull();
+    }
+
+    // Helper methods
+    private FilterChain statements(String pattern, int count) {
+        return (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+            for (int i = 0; i < count; i++) {
+                inspector.inspect("select * from packages where id = ?");
+            }
+        };
+    }
+}
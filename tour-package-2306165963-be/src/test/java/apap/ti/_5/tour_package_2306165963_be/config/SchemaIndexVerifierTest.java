@@ -0,0 +1,35 @@
+package apap.ti._5.tour_package_2306165963_be.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SchemaIndexVerifierTest {
+
+    @Test
+    void requiredIndexes_areAllCreatedByMigrations() throws IOException {
+        StringBuilder sql = new StringBuilder();
+        for (Resource resource : new PathMatchingResourcePatternResolver()
+                .getResources("classpath:db/migration/*.sql")) {
+            sql.append(resource.getContentAsString(StandardCharsets.UTF_8));
+        }
+
+        assertThat(SchemaIndexVerifier.REQUIRED_INDEXES)
+                .allSatisfy(index -> assertThat(sql.toString()).containsPattern("CREATE INDEX IF NOT EXISTS " + index + "\\s"));
+    }
+
+    @Test
+    void missingIndexes_reportsOnlyAbsentOnes() {
+        Set<String> existing = Set.copyOf(SchemaIndexVerifier.REQUIRED_INDEXES.subList(1,
+                SchemaIndexVerifier.REQUIRED_INDEXES.size()));
+
+        assertThat(SchemaIndexVerifier.missingIndexes(existing))
+                .containsExactly(SchemaIndexVerifier.REQUIRED_INDEXES.get(0));
+    }
+}
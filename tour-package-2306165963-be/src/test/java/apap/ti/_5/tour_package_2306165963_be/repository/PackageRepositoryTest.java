@@ -0,0 +1,128 @@
+package apap.ti._5.tour_package_2306165963_be.repository;
+
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.util.TestDataFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Query count untuk load package -> plans -> ordered quantities harus tetap, tidak tergantung jumlah plan
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Migration ditulis untuk Postgres; di H2 schema dibuat dari entity
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PackageRepositoryTest {
+
+    private static final int PACKAGES = 4;
+    private static final int PLANS_PER_PACKAGE = 3;
+    private static final int OQS_PER_PLAN = 2;
+
+    @Autowired
+    TestEntityManager em;
+
+    @Autowired
+    PackageRepository packageRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 0; i < PACKAGES; i++) {
+            Package pkg = TestDataFactory.pkg("pkg-" + i);
+            em.persist(pkg);
+            for (int j = 0; j < PLANS_PER_PACKAGE; j++) {
+                Plan plan = TestDataFactory.plan(null, pkg.getId());
+                em.persist(plan);
+                pkg.getPlans().add(plan);
+                for (int k = 0; k < OQS_PER_PLAN; k++) {
+                    OrderedQuantity oq = TestDataFactory.oq(null, plan.getId(), "act-" + k);
+                    em.persist(oq);
+                    plan.getOrderedQuantities().add(oq);
+                }
+            }
+        }
+        em.flush();
+        em.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllWithPlanTree_loadsWholeGraphInBoundedQueries() {
+        List<Package> packages = packageRepository.findAllWithPlanTree();
+
+        assertThat(countOrderedQuantities(packages)).isEqualTo(PACKAGES * PLANS_PER_PACKAGE * OQS_PER_PLAN);
+        // 1 query package+plans (entity graph), 1 subselect untuk semua ordered quantities
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void findByStatus_loadsWholeGraphInBoundedQueries() {
+        List<Package> packages = packageRepository.findByStatus("Pending");
+
+        assertThat(packages).hasSize(PACKAGES);
+        assertThat(countOrderedQuantities(packages)).isEqualTo(PACKAGES * PLANS_PER_PACKAGE * OQS_PER_PLAN);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void findAll_withoutGraph_isStillBatched() {
+        List<Package> packages = packageRepository.findAll();
+
+        assertThat(countOrderedQuantities(packages)).isEqualTo(PACKAGES * PLANS_PER_PACKAGE * OQS_PER_PLAN);
+        // packages, plans (batch), ordered quantities (subselect)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void keysetPages_includeUndatedPackagesAtTheEnd() {
+        for (String id : new String[] {"pkg-undated-b", "pkg-undated-a"}) {
+            Package undated = TestDataFactory.pkg(id);
+            undated.setStartDate(null);
+            em.persist(undated);
+        }
+        em.flush();
+        em.clear();
+
+        PageRequest page = PageRequest.of(0, 2);
+        List<String> visited = new ArrayList<>();
+        List<Package> rows = packageRepository.findFirstPage(page);
+        while (!rows.isEmpty()) {
+            rows.forEach(pkg -> visited.add(pkg.getId()));
+            Package last = rows.get(rows.size() - 1);
+            rows = last.getStartDate() != null
+                    ? packageRepository.findPageAfter(last.getStartDate(), last.getId(), page)
+                    : packageRepository.findUndatedPageAfter(last.getId(), page);
+        }
+
+        assertThat(visited).hasSize(PACKAGES + 2).doesNotHaveDuplicates();
+        assertThat(visited.subList(PACKAGES, PACKAGES + 2)).containsExactly("pkg-undated-a", "pkg-undated-b");
+    }
+
+    private int countOrderedQuantities(List<Package> packages) {
+        return packages.stream()
+                .flatMap(pkg -> pkg.getPlans().stream())
+                .mapToInt(plan -> plan.getOrderedQuantities().size())
+                .sum();
+    }
+}
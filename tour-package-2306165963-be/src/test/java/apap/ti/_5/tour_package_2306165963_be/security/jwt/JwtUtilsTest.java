@@ -0,0 +1,84 @@
+package apap.ti._5.tour_package_2306165963_be.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "SecretKeyForFlightAndLoyaltyServiceThatMustBeLongEnoughToSatisfyHS256AlgorithmRequirement";
+
+    JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setup() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60000);
+        ReflectionTestUtils.setField(jwtUtils, "jwtCacheSize", 2);
+        jwtUtils.init();
+    }
+
+    @Test
+    void resolvePrincipal_validToken_readsAllClaims() {
+        String token = token("user-1", "Customer", 60000);
+
+        JwtPrincipal principal = jwtUtils.resolvePrincipal(token);
+
+        assertThat(principal).isNotNull();
+        assertThat(principal.getId()).isEqualTo("user-1");
+        assertThat(principal.getRole()).isEqualTo("Customer");
+        assertThat(principal.getEmail()).isEqualTo("user-1@mail.com");
+        assertThat(principal.getName()).isEqualTo("user-1-name");
+    }
+
+    @Test
+    void resolvePrincipal_cachedToken_skipsVerification() {
+        String token = token("user-1", "Customer", 60000);
+        jwtUtils.resolvePrincipal(token);
+
+        // Ganti key: kalau claims tidak di-cache, signature pasti gagal
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET + "-rotated");
+        ReflectionTestUtils.setField(jwtUtils, "jwtParser",
+                Jwts.parser().verifyWith(Keys.hmacShaKeyFor((SECRET + "-rotated").getBytes())).build());
+
+        assertThat(jwtUtils.getIdFromJwtToken(token)).isEqualTo("user-1");
+        assertThat(jwtUtils.validateJwtToken(token("user-2", "Customer", 60000))).isFalse();
+    }
+
+    @Test
+    void resolvePrincipal_invalidOrExpiredToken_returnsNull() {
+        assertThat(jwtUtils.resolvePrincipal("not-a-jwt")).isNull();
+        assertThat(jwtUtils.resolvePrincipal(token("user-1", "Customer", -1000))).isNull();
+        assertThat(jwtUtils.validateJwtToken("")).isFalse();
+    }
+
+    @Test
+    void cache_isBounded() {
+        jwtUtils.resolvePrincipal(token("user-1", "Customer", 60000));
+        jwtUtils.resolvePrincipal(token("user-2", "Customer", 60000));
+        jwtUtils.resolvePrincipal(token("user-3", "Customer", 60000));
+
+        Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(jwtUtils, "claimsCache");
+        assertThat(cache).hasSize(2);
+    }
+
+    private String token(String id, String role, long ttlMs) {
+        return Jwts.builder()
+                .subject(id + "-name")
+                .claim("id", id)
+                .claim("role", role)
+                .claim("email", id + "@mail.com")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + ttlMs))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+    }
+}
@@ -0,0 +1,155 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
+import apap.ti._5.tour_package_2306165963_be.util.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityIndexTest {
+
+    @Mock
+    ActivityRepository activityRepository;
+
+    @InjectMocks
+    ActivityIndex index;
+
+    LocalDateTime base = LocalDateTime.of(2026, 1, 10, 8, 0);
+    Plan plan;
+
+    @BeforeEach
+    void setup() {
+        plan = TestDataFactory.plan(UUID.randomUUID(), "pkg-1");
+        plan.setStartDate(base);
+        plan.setEndDate(base.plusDays(5));
+    }
+
+    @Test
+    void findCompatible_returnsOnlyActivitiesInsidePlanWindow() {
+        Activity inside = activity("inside", base.plusDays(1), base.plusDays(2));
+        Activity startsBefore = activity("before", base.minusDays(1), base.plusDays(1));
+        Activity endsAfter = activity("after", base.plusDays(4), base.plusDays(6));
+        Activity edge = activity("edge", base, base.plusDays(5));
+        Activity otherRoute = activity("route", base.plusDays(1), base.plusDays(2));
+        otherRoute.setEndLocation("Bandung");
+        Activity deleted = activity("deleted", base.plusDays(1), base.plusDays(2));
+        deleted.setDeleted(true);
+        when(activityRepository.findAll())
+                .thenReturn(List.of(inside, startsBefore, endsAfter, edge, otherRoute, deleted));
+
+        assertThat(index.findCompatible(plan))
+                .extracting(ActivityIndex.ActivityEntry::id)
+                .containsExactly("edge", "inside");
+    }
+
+    @Test
+    void refreshAfterCommit_updatesCapacityAndRemovesDeletedActivities() {
+        Activity first = activity("first", base.plusDays(1), base.plusDays(2));
+        Activity second = activity("second", base.plusDays(2), base.plusDays(3));
+        when(activityRepository.findAll()).thenReturn(List.of(first, second));
+        assertThat(index.findCompatible(plan)).hasSize(2);
+
+        Activity reserved = activity("first", base.plusDays(1), base.plusDays(2));
+        reserved.setCapacity(7);
+        when(activityRepository.findAllById(anyCollection())).thenReturn(List.of(reserved));
+
+        index.refreshAfterCommit(List.of("first", "second"));
+
+        assertThat(index.findCompatible(plan))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.id()).isEqualTo("first");
+                    assertThat(entry.remainingCapacity()).isEqualTo(7);
+                });
+        verify(activityRepository, times(1)).findAll();
+    }
+
+    @Test
+    void rebuild_slowerThanRefresh_doesNotOverwriteNewerSnapshot() {
+        Activity first = activity("first", base.plusDays(1), base.plusDays(2));
+        Activity second = activity("second", base.plusDays(2), base.plusDays(3));
+        Activity reserved = activity("first", base.plusDays(1), base.plusDays(2));
+        reserved.setCapacity(7);
+        when(activityRepository.findAllById(anyCollection())).thenReturn(List.of(reserved));
+        // Rebuild kedua membaca data lama; refresh commit di tengah-tengah rebuild itu
+        when(activityRepository.findAll())
+                .thenReturn(List.of(first, second))
+                .thenAnswer(invocation -> {
+                    index.refreshAfterCommit(List.of("first"));
+                    return List.of(first, second);
+                });
+        index.rebuild();
+
+        index.rebuild();
+
+        assertThat(index.findCompatible(plan))
+                .extracting(ActivityIndex.ActivityEntry::remainingCapacity)
+                .containsExactly(7, 50);
+    }
+
+    @Test
+    void refreshAfterCommit_olderRefreshInstalledLast_keepsNewerEntry() {
+        Activity first = activity("first", base.plusDays(1), base.plusDays(2));
+        when(activityRepository.findAll()).thenReturn(List.of(first));
+        index.rebuild();
+
+        Activity afterFirstReservation = activity("first", base.plusDays(1), base.plusDays(2));
+        afterFirstReservation.setCapacity(10);
+        Activity afterSecondReservation = activity("first", base.plusDays(1), base.plusDays(2));
+        afterSecondReservation.setCapacity(8);
+        // Refresh pertama membaca capacity 10, refresh kedua membaca 8 dan terpasang duluan
+        when(activityRepository.findAllById(anyCollection()))
+                .thenAnswer(invocation -> {
+                    index.refreshAfterCommit(List.of("first"));
+                    return List.of(afterFirstReservation);
+                })
+                .thenReturn(List.of(afterSecondReservation));
+
+        index.refreshAfterCommit(List.of("first"));
+
+        assertThat(index.findCompatible(plan))
+                .extracting(ActivityIndex.ActivityEntry::remainingCapacity)
+                .containsExactly(8);
+    }
+
+    @Test
+    void refreshAfterCommit_movedActivity_leavesOldRouteAndKeepsOrder() {
+        Activity first = activity("first", base.plusDays(1), base.plusDays(2));
+        Activity second = activity("second", base.plusDays(3), base.plusDays(4));
+        Activity other = activity("other", base.plusDays(1), base.plusDays(2));
+        other.setEndLocation("Bandung");
+        when(activityRepository.findAll()).thenReturn(List.of(first, second, other));
+        index.rebuild();
+
+        Activity moved = activity("other", base.plusDays(2), base.plusDays(3));
+        when(activityRepository.findAllById(anyCollection())).thenReturn(List.of(moved));
+        index.refreshAfterCommit(List.of("other"));
+
+        assertThat(index.findCompatible(plan))
+                .extracting(ActivityIndex.ActivityEntry::id)
+                .containsExactly("first", "other", "second");
+        assertThat(index.findCompatible(plan.getActivityType(), plan.getStartLocation(), "Bandung",
+                plan.getStartDate(), plan.getEndDate())).isEmpty();
+    }
+
+    private Activity activity(String id, LocalDateTime start, LocalDateTime end) {
+        Activity activity = TestDataFactory.activity(id);
+        activity.setStartDate(start);
+        activity.setEndDate(end);
+        return activity;
+    }
+}
@@ -1,5 +1,6 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
+import apap.ti._5.tour_package_2306165963_be.dto.activity.ActivitySearchCriteria;
 import apap.ti._5.tour_package_2306165963_be.model.Activity;
 import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
 import apap.ti._5.tour_package_2306165963_be.repository.OrderedQuantityRepository;
@@ -7,9 +8,15 @@ import apap.ti._5.tour_package_2306165963_be.util.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +32,9 @@ class ActivityServiceImplTest {
     @Mock
     ActivityRepository activityRepository;
 
+    @Mock
+    ActivityIndex activityIndex;
+
     @Mock
     OrderedQuantityRepository orderedQuantityRepository;
 
@@ -145,4 +155,27 @@ class ActivityServiceImplTest {
         when(activityRepository.findByActivityNameContainingIgnoreCase("hotel")).thenReturn(List.of(valid));
         assertThat(service.searchActivitiesByName("hotel")).hasSize(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchActivities_capsSizeAndAddsIdTieBreaker() {
+        ActivitySearchCriteria criteria = ActivitySearchCriteria.builder().activityType("Flight").build();
+        when(activityRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(valid)));
+
+        assertThat(service.searchActivities(criteria, 2, 500, "price,desc").getContent()).hasSize(1);
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(activityRepository).findAll(any(Specification.class), captor.capture());
+        assertThat(captor.getValue()).isEqualTo(PageRequest.of(2, ActivityServiceImpl.MAX_PAGE_SIZE,
+                Sort.by(Sort.Direction.DESC, "price").and(Sort.by("id"))));
+    }
+
+    @Test
+    void searchActivities_unknownSortField_throws() {
+        assertThatThrownBy(() -> service.searchActivities(new ActivitySearchCriteria(), 0, 10, "vendorSecret"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sort");
+        verifyNoInteractions(activityRepository);
+    }
+}
@@ -0,0 +1,117 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import apap.ti._5.tour_package_2306165963_be.model.CapacityReservation;
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.CapacityReservationRepository;
+import apap.ti._5.tour_package_2306165963_be.util.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CapacityReservationServiceImplTest {
+
+    @Mock
+    CapacityReservationRepository capacityReservationRepository;
+
+    @Mock
+    ActivityRepository activityRepository;
+
+    @Mock
+    ActivityIndex activityIndex;
+
+    @InjectMocks
+    CapacityReservationServiceImpl service;
+
+    Package pkg;
+    Plan plan1;
+    Plan plan2;
+
+    @BeforeEach
+    void setup() {
+        pkg = TestDataFactory.pkg("pkg-1");
+        plan1 = TestDataFactory.plan(UUID.randomUUID(), "pkg-1");
+        plan2 = TestDataFactory.plan(UUID.randomUUID(), "pkg-1");
+        pkg.setPlans(List.of(plan1, plan2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reservePackage_groupsByActivity_locksOnceAndDecrements() {
+        plan1.setOrderedQuantities(List.of(
+                TestDataFactory.oq(UUID.randomUUID(), plan1.getId(), "act-2"),
+                TestDataFactory.oq(UUID.randomUUID(), plan1.getId(), "act-1")));
+        plan2.setOrderedQuantities(List.of(TestDataFactory.oq(UUID.randomUUID(), plan2.getId(), "act-1")));
+
+        Activity act1 = TestDataFactory.activity("act-1");
+        Activity act2 = TestDataFactory.activity("act-2");
+        when(activityRepository.findAllByIdForUpdate(any())).thenReturn(List.of(act1, act2));
+        when(capacityReservationRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<CapacityReservation> result = service.reservePackage(pkg);
+
+        ArgumentCaptor<Collection<String>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(activityRepository, times(1)).findAllByIdForUpdate(ids.capture());
+        assertThat(ids.getValue()).containsExactly("act-1", "act-2");
+
+        assertThat(act1.getCapacity()).isEqualTo(46); // 50 - 2 - 2
+        assertThat(act2.getCapacity()).isEqualTo(48);
+        assertThat(result).hasSize(3);
+        verify(capacityReservationRepository).flush();
+        verify(activityRepository, never()).findById(anyString());
+        verify(activityRepository, never()).save(any());
+    }
+
+    @Test
+    void reservePackage_notEnoughCapacity_throwsWithoutChanges() {
+        plan1.setOrderedQuantities(List.of(TestDataFactory.oq(UUID.randomUUID(), plan1.getId(), "act-1")));
+        plan2.setOrderedQuantities(List.of(TestDataFactory.oq(UUID.randomUUID(), plan2.getId(), "act-1")));
+
+        Activity act1 = TestDataFactory.activity("act-1");
+        act1.setCapacity(3);
+        when(activityRepository.findAllByIdForUpdate(any())).thenReturn(List.of(act1));
+
+        assertThatThrownBy(() -> service.reservePackage(pkg))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Not enough capacity");
+        assertThat(act1.getCapacity()).isEqualTo(3);
+        verifyNoInteractions(capacityReservationRepository);
+    }
+
+    @Test
+    void reservePackage_orderedQuotaExceedsSnapshot_throwsBeforeLocking() {
+        OrderedQuantity oq = TestDataFactory.oq(UUID.randomUUID(), plan1.getId(), "act-1");
+        oq.setOrderedQuota(60);
+        plan1.setOrderedQuantities(List.of(oq));
+
+        assertThatThrownBy(() -> service.reservePackage(pkg))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("exceeds Activity Capacity");
+        verifyNoInteractions(capacityReservationRepository, activityRepository);
+    }
+
+    @Test
+    void reservePackage_deletedActivity_isSkipped() {
+        plan1.setOrderedQuantities(List.of(TestDataFactory.oq(UUID.randomUUID(), plan1.getId(), "act-1")));
+        when(activityRepository.findAllByIdForUpdate(any())).thenReturn(List.of());
+        when(capacityReservationRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        assertThat(service.reservePackage(pkg)).isEmpty();
+    }
+}
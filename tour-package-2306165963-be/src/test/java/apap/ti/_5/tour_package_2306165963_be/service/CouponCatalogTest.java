@@ -0,0 +1,70 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.CouponResponseDTO;
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.Coupon;
+import apap.ti._5.tour_package_2306165963_be.repository.CouponRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponCatalogTest {
+
+    @Mock
+    CouponRepository couponRepository;
+
+    @InjectMocks
+    CouponCatalog catalog;
+
+    Coupon newest;
+    Coupon oldest;
+
+    @BeforeEach
+    void setup() {
+        newest = Coupon.builder().id(UUID.randomUUID()).name("Newest").points(50).percentOff(5).build();
+        oldest = Coupon.builder().id(UUID.randomUUID()).name("Oldest").points(100).percentOff(10).build();
+    }
+
+    @Test
+    void reads_loadOnceAndServeFromSnapshot() {
+        when(couponRepository.findAllByOrderByCreatedDateDesc()).thenReturn(List.of(newest, oldest));
+
+        assertThat(catalog.getCoupons()).extracting(CouponResponseDTO::getName).containsExactly("Newest", "Oldest");
+        assertThat(catalog.findById(oldest.getId())).get().extracting(Coupon::getPoints).isEqualTo(100);
+        assertThat(catalog.findById(UUID.randomUUID())).isEmpty();
+        assertThat(catalog.size()).isEqualTo(2);
+
+        verify(couponRepository, times(1)).findAllByOrderByCreatedDateDesc();
+    }
+
+    @Test
+    void snapshot_isNotAffectedByEntityMutation() {
+        when(couponRepository.findAllByOrderByCreatedDateDesc()).thenReturn(List.of(newest));
+        catalog.getCoupons();
+
+        newest.setPoints(999);
+
+        assertThat(catalog.findById(newest.getId())).get().extracting(Coupon::getPoints).isEqualTo(50);
+    }
+
+    @Test
+    void refreshAfterCommit_withoutTransaction_swapsImmediately() {
+        when(couponRepository.findAllByOrderByCreatedDateDesc())
+                .thenReturn(List.of(oldest))
+                .thenReturn(List.of(newest, oldest));
+        assertThat(catalog.size()).isEqualTo(1);
+
+        catalog.refreshAfterCommit();
+
+        assertThat(catalog.getCoupons()).extracting(CouponResponseDTO::getName).containsExactly("Newest", "Oldest");
+    }
+}
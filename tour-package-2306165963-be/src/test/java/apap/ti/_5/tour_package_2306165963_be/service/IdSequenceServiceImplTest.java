@@ -0,0 +1,44 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.repository.IdSequenceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdSequenceServiceImplTest {
+
+    @Mock
+    IdSequenceRepository idSequenceRepository;
+
+    @InjectMocks
+    IdSequenceServiceImpl service;
+
+    @Test
+    void nextValue_existingKey_incrementsWithoutSeeding() {
+        when(idSequenceRepository.increment("package:user-1")).thenReturn(Optional.of(8L));
+
+        long value = service.nextValue("package:user-1", () -> {
+            throw new AssertionError("seed must not be called");
+        });
+
+        assertThat(value).isEqualTo(8L);
+        verify(idSequenceRepository, never()).seedOrIncrement(anyString(), anyLong());
+    }
+
+    @Test
+    void nextValue_newKey_seedsThroughUpsert() {
+        when(idSequenceRepository.increment("package:user-1")).thenReturn(Optional.empty());
+        when(idSequenceRepository.seedOrIncrement("package:user-1", 3L)).thenReturn(4L);
+
+        assertThat(service.nextValue("package:user-1", () -> 3L)).isEqualTo(4L);
+    }
+}
@@ -0,0 +1,119 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LocationCacheTest {
+
+    private static final String ACEH = "{\"data\":[{\"code\":\"11\",\"name\":\"ACEH\",\"extra\":\"x\"}]}";
+    private static final String BALI = "{\"data\":[{\"code\":\"51\",\"name\":\"BALI\"}]}";
+
+    @TempDir
+    Path tempDir;
+
+    final AtomicInteger calls = new AtomicInteger();
+    final AtomicReference<Mono<ClientResponse>> upstream = new AtomicReference<>(respond(ACEH));
+
+    @Test
+    void get_miss_fetchesOnceAndKeepsOnlyCodeAndName() {
+        LocationCache cache = cache(86400000L);
+
+        List<Map<String, Object>> first = cache.get(LocationCache.PROVINCES).block();
+        List<Map<String, Object>> second = cache.get(LocationCache.PROVINCES).block();
+
+        assertThat(first).containsExactly(Map.of("code", "11", "name", "ACEH"));
+        assertThat(second).isSameAs(first);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void get_concurrentMisses_shareOneUpstreamCall() {
+        upstream.set(respond(ACEH).delayElement(Duration.ofMillis(100)));
+        LocationCache cache = cache(86400000L);
+
+        Mono<List<Map<String, Object>>> a = cache.get(LocationCache.PROVINCES);
+        Mono<List<Map<String, Object>>> b = cache.get(LocationCache.PROVINCES);
+
+        Tuple2<List<Map<String, Object>>, List<Map<String, Object>>> both = Mono.zip(a, b).block();
+
+        assertThat(both.getT1()).isSameAs(both.getT2());
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void get_expired_returnsStaleAndRefreshesInBackground() {
+        LocationCache cache = cache(0L);
+        cache.get(LocationCache.PROVINCES).block();
+
+        upstream.set(respond(BALI));
+        List<Map<String, Object>> stale = cache.get(LocationCache.PROVINCES).block();
+
+        assertThat(stale).extracting(region -> region.get("name")).containsExactly("ACEH");
+        assertThat(calls).hasValue(2);
+        assertThat(cache.get(LocationCache.PROVINCES).block())
+                .extracting(region -> region.get("name")).containsExactly("BALI");
+    }
+
+    @Test
+    void get_upstreamDown_keepsServingCachedData() {
+        LocationCache cache = cache(0L);
+        cache.get(LocationCache.PROVINCES).block();
+
+        upstream.set(Mono.error(new IllegalStateException("offline")));
+
+        assertThat(cache.get(LocationCache.PROVINCES).block())
+                .extracting(region -> region.get("name")).containsExactly("ACEH");
+        assertThatThrownBy(() -> cache.get("regencies/11").block())
+                .hasMessageContaining("offline");
+    }
+
+    @Test
+    void snapshot_isLoadedOnStartupWithoutCallingUpstream() {
+        LocationCache cache = cache(86400000L);
+        cache.get(LocationCache.PROVINCES).block();
+
+        upstream.set(Mono.error(new IllegalStateException("offline")));
+        LocationCache restarted = cache(86400000L);
+        restarted.loadSnapshot();
+
+        assertThat(restarted.size()).isEqualTo(1);
+        assertThat(restarted.get(LocationCache.PROVINCES).block())
+                .extracting(region -> region.get("name")).containsExactly("ACEH");
+        assertThat(calls).hasValue(1);
+    }
+
+    // Helper methods
+    private LocationCache cache(long ttlMs) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            calls.incrementAndGet();
+            return upstream.get();
+        });
+        return new LocationCache(builder, new ObjectMapper(), "http://wilayah.test/api", ttlMs, 3000L,
+                tempDir.resolve("location-snapshot.json").toString(), Schedulers.immediate());
+    }
+
+    private static Mono<ClientResponse> respond(String body) {
+        return Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+}
@@ -0,0 +1,62 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.LoyaltyPointsLedger;
+import apap.ti._5.tour_package_2306165963_be.repository.LoyaltyPointsLedgerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoyaltyLedgerCompactionServiceImplTest {
+
+    @Mock
+    LoyaltyPointsLedgerRepository loyaltyPointsLedgerRepository;
+
+    @InjectMocks
+    LoyaltyLedgerCompactionServiceImpl service;
+
+    LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    void compactBefore_nothingToCompact_doesNotDelete() {
+        when(loyaltyPointsLedgerRepository.sumDeltaBefore(cutoff)).thenReturn(List.of());
+
+        assertThat(service.compactBefore(cutoff)).isZero();
+        verify(loyaltyPointsLedgerRepository, never()).deleteBefore(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compactBefore_replacesOldEntriesWithOneSnapshotPerCustomer() {
+        UUID customerA = UUID.randomUUID();
+        UUID customerB = UUID.randomUUID();
+        when(loyaltyPointsLedgerRepository.sumDeltaBefore(cutoff)).thenReturn(List.of(
+                new Object[] { customerA, 250L },
+                new Object[] { customerB, -40L }));
+
+        assertThat(service.compactBefore(cutoff)).isEqualTo(2);
+
+        ArgumentCaptor<List<LoyaltyPointsLedger>> captor = ArgumentCaptor.forClass(List.class);
+        verify(loyaltyPointsLedgerRepository).deleteBefore(cutoff);
+        verify(loyaltyPointsLedgerRepository).saveAll(captor.capture());
+        assertThat(captor.getValue())
+                .extracting(LoyaltyPointsLedger::getCustomerId, LoyaltyPointsLedger::getDelta)
+                .containsExactly(tuple(customerA, 250), tuple(customerB, -40));
+        assertThat(captor.getValue())
+                .allSatisfy(entry -> {
+                    assertThat(entry.getReason()).isEqualTo(LoyaltyPointsLedger.REASON_SNAPSHOT);
+                    assertThat(entry.getCreatedDate()).isBefore(cutoff);
+                });
+    }
+}
@@ -0,0 +1,320 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.dto.coupon.AddPointsRequestDto;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.AddPointsBatchItemResultDTO;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.CouponResponseDTO;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.LoyaltyDashboardResponseDTO;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.LoyaltyPointsResponseDTO;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.PurchaseCouponRequestDTO;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.PurchasedCouponCountsView;
+import apap.ti._5.tour_package_2306165963_be.dto.loyalty.PurchasedCouponResponseDTO;
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.Coupon;
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.LoyaltyPoints;
+import apap.ti._5.tour_package_2306165963_be.model.loyalty.LoyaltyPointsLedger;
+import apap.ti._5.tour_package_2306165963_be.repository.LoyaltyPointsJdbcRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.LoyaltyPointsLedgerRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.LoyaltyPointsRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.PurchasedCouponRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoyaltyServiceImplTest {
+
+    @Mock
+    LoyaltyPointsRepository loyaltyPointsRepository;
+
+    @Mock
+    LoyaltyPointsLedgerRepository loyaltyPointsLedgerRepository;
+
+    @Mock
+    LoyaltyPointsJdbcRepository loyaltyPointsJdbcRepository;
+
+    @Mock
+    CouponCatalog couponCatalog;
+
+    @Mock
+    PurchasedCouponRepository purchasedCouponRepository;
+
+    @Mock
+    IdSequenceService idSequenceService;
+
+    @InjectMocks
+    LoyaltyServiceImpl service;
+
+    UUID customerId = UUID.fromString("abcdef12-0000-0000-0000-000000000000");
+    Coupon coupon;
+
+    @BeforeEach
+    void setup() {
+        coupon = Coupon.builder()
+                .id(UUID.randomUUID())
+                .name("Summer Sale!")
+                .points(100)
+                .percentOff(10)
+                .build();
+    }
+
+    @Test
+    void purchaseCoupon_codeFromSequence_noProbing() {
+        when(couponCatalog.findById(coupon.getId())).thenReturn(Optional.of(coupon));
+        when(loyaltyPointsRepository.debit(customerId, 100)).thenReturn(1);
+        when(idSequenceService.nextValue(eq("coupon:SUMMER-ABCDEF"), any())).thenReturn(3L);
+        when(purchasedCouponRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        PurchasedCouponResponseDTO result = service.purchaseCoupon(request());
+
+        assertThat(result.getCode()).isEqualTo("SUMMER-ABCDEF-3");
+        verify(purchasedCouponRepository, never()).existsByCode(anyString());
+        verify(purchasedCouponRepository, never()).countByCustomerIdAndCouponId(any(), any());
+    }
+
+    @Test
+    void purchaseCoupon_newPrefix_seedsFromHighestExistingCode() {
+        when(couponCatalog.findById(coupon.getId())).thenReturn(Optional.of(coupon));
+        when(loyaltyPointsRepository.debit(customerId, 100)).thenReturn(1);
+        when(purchasedCouponRepository.findCodesByPrefix("SUMMER-ABCDEF"))
+                .thenReturn(List.of("SUMMER-ABCDEF-1", "SUMMER-ABCDEF-7", "SUMMER-ABCDEF-X"));
+        when(idSequenceService.nextValue(eq("coupon:SUMMER-ABCDEF"), any()))
+                .thenAnswer(inv -> inv.<LongSupplier>getArgument(1).getAsLong() + 1);
+        when(purchasedCouponRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        assertThat(service.purchaseCoupon(request()).getCode()).isEqualTo("SUMMER-ABCDEF-8");
+    }
+
+    @Test
+    void purchaseCoupon_insufficientPoints_throws() {
+        when(couponCatalog.findById(coupon.getId())).thenReturn(Optional.of(coupon));
+        when(loyaltyPointsRepository.debit(customerId, 100)).thenReturn(0);
+
+        assertThatThrownBy(() -> service.purchaseCoupon(request()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Insufficient");
+        verifyNoInteractions(idSequenceService, loyaltyPointsLedgerRepository);
+        verify(loyaltyPointsRepository, never()).save(any());
+    }
+
+    @Test
+    void purchaseCoupon_freeCouponWithoutPointsHistory_createsAccountBeforeDebit() {
+        coupon.setPoints(0);
+        when(couponCatalog.findById(coupon.getId())).thenReturn(Optional.of(coupon));
+        when(loyaltyPointsRepository.debit(customerId, 0)).thenReturn(1);
+        when(idSequenceService.nextValue(eq("coupon:SUMMER-ABCDEF"), any())).thenReturn(1L);
+        when(purchasedCouponRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        assertThat(service.purchaseCoupon(request()).getCode()).isEqualTo("SUMMER-ABCDEF-1");
+
+        InOrder inOrder = inOrder(loyaltyPointsRepository);
+        inOrder.verify(loyaltyPointsRepository).ensureAccount(customerId);
+        inOrder.verify(loyaltyPointsRepository).debit(customerId, 0);
+    }
+
+    @Test
+    void purchaseCoupon_appendsDebitToLedger() {
+        when(couponCatalog.findById(coupon.getId())).thenReturn(Optional.of(coupon));
+        when(loyaltyPointsRepository.debit(customerId, 100)).thenReturn(1);
+        when(idSequenceService.nextValue(eq("coupon:SUMMER-ABCDEF"), any())).thenReturn(1L);
+        when(purchasedCouponRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        service.purchaseCoupon(request());
+
+        ArgumentCaptor<LoyaltyPointsLedger> captor = ArgumentCaptor.forClass(LoyaltyPointsLedger.class);
+        verify(loyaltyPointsLedgerRepository).save(captor.capture());
+        assertThat(captor.getValue().getDelta()).isEqualTo(-100);
+        assertThat(captor.getValue().getReason()).isEqualTo(LoyaltyPointsLedger.REASON_PURCHASE_COUPON);
+        assertThat(captor.getValue().getReference()).isEqualTo("purchase:SUMMER-ABCDEF-1");
+    }
+
+    @Test
+    void addPoints_creditsAtomicallyAndRecordsLedger() {
+        when(loyaltyPointsLedgerRepository.insertIfAbsent(any(), eq(customerId), eq(50),
+                eq(LoyaltyPointsLedger.REASON_ADD_POINTS), eq("trx-1"), any())).thenReturn(1);
+        when(loyaltyPointsRepository.findByCustomerId(customerId)).thenReturn(Optional.of(
+                LoyaltyPoints.builder().customerId(customerId).points(150).build()));
+
+        LoyaltyPointsResponseDTO result = service.addPoints(addPointsRequest("trx-1"));
+
+        assertThat(result.getPoints()).isEqualTo(150);
+        verify(loyaltyPointsRepository).ensureAccount(customerId);
+        verify(loyaltyPointsRepository).credit(customerId, 50);
+        verify(loyaltyPointsRepository, never()).save(any());
+        verify(loyaltyPointsLedgerRepository, never()).save(any());
+    }
+
+    @Test
+    void addPoints_duplicateReference_isIgnored() {
+        // ON CONFLICT (reference) DO NOTHING: 0 row berarti reference sudah dipakai
+        when(loyaltyPointsLedgerRepository.insertIfAbsent(any(), any(), anyInt(), any(), eq("trx-1"), any()))
+                .thenReturn(0);
+        when(loyaltyPointsRepository.findByCustomerId(customerId)).thenReturn(Optional.of(
+                LoyaltyPoints.builder().customerId(customerId).points(150).build()));
+
+        assertThat(service.addPoints(addPointsRequest("trx-1")).getPoints()).isEqualTo(150);
+        verify(loyaltyPointsRepository, never()).ensureAccount(any());
+        verify(loyaltyPointsRepository, never()).credit(any(), anyInt());
+    }
+
+    @Test
+    void addPoints_withoutReference_alwaysAppendsLedger() {
+        when(loyaltyPointsRepository.findByCustomerId(customerId)).thenReturn(Optional.empty());
+
+        service.addPoints(addPointsRequest(null));
+
+        verify(loyaltyPointsLedgerRepository, never()).insertIfAbsent(any(), any(), anyInt(), any(), any(), any());
+        verify(loyaltyPointsLedgerRepository).save(argThat(entry -> entry.getDelta() == 50
+                && entry.getReference() == null));
+        verify(loyaltyPointsRepository).credit(customerId, 50);
+    }
+
+    @Test
+    void addPointsBatch_coalescesPerCustomerAndSkipsDuplicates() {
+        UUID otherCustomer = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        AddPointsRequestDto other = addPointsRequest("trx-3");
+        other.setCustomerId(otherCustomer);
+        AddPointsRequestDto invalid = addPointsRequest("trx-4");
+        invalid.setPoints(0);
+        List<AddPointsRequestDto> batch = Arrays.asList(
+                addPointsRequest("trx-1"), addPointsRequest("trx-2"), addPointsRequest("trx-1"),
+                addPointsRequest("trx-old"), other, invalid);
+
+        // trx-old sudah ada di ledger: ON CONFLICT DO NOTHING tidak me-return id-nya
+        when(loyaltyPointsJdbcRepository.insertLedgerEntries(anyList())).thenAnswer(invocation -> {
+            List<LoyaltyPointsLedger> entries = invocation.getArgument(0);
+            return entries.stream()
+                    .filter(entry -> !"trx-old".equals(entry.getReference()))
+                    .map(LoyaltyPointsLedger::getId)
+                    .collect(Collectors.toSet());
+        });
+        when(loyaltyPointsRepository.findAllById(any())).thenReturn(List.of(
+                LoyaltyPoints.builder().customerId(customerId).points(200).build(),
+                LoyaltyPoints.builder().customerId(otherCustomer).points(50).build()));
+
+        List<AddPointsBatchItemResultDTO> results = service.addPointsBatch(batch);
+
+        assertThat(results).extracting(AddPointsBatchItemResultDTO::getStatus).containsExactly(
+                AddPointsBatchItemResultDTO.STATUS_APPLIED,
+                AddPointsBatchItemResultDTO.STATUS_APPLIED,
+                AddPointsBatchItemResultDTO.STATUS_DUPLICATE,
+                AddPointsBatchItemResultDTO.STATUS_DUPLICATE,
+                AddPointsBatchItemResultDTO.STATUS_APPLIED,
+                AddPointsBatchItemResultDTO.STATUS_REJECTED);
+        assertThat(results.get(0).getPoints()).isEqualTo(200);
+        assertThat(results.get(5).getPoints()).isNull();
+
+        // Dua item untuk customer yang sama jadi satu delta
+        verify(loyaltyPointsJdbcRepository).creditAll(Map.of(customerId, 100, otherCustomer, 50));
+        verify(loyaltyPointsJdbcRepository).insertLedgerEntries(argThat(entries -> entries.size() == 4));
+        verify(loyaltyPointsLedgerRepository, never()).saveAll(any());
+        verify(loyaltyPointsRepository, never()).credit(any(), anyInt());
+    }
+
+    @Test
+    void addPointsBatch_customerTotalOverIntRange_isRejectedNotWrapped() {
+        AddPointsRequestDto first = addPointsRequest("trx-1");
+        first.setPoints(Integer.MAX_VALUE);
+        AddPointsRequestDto second = addPointsRequest("trx-2");
+        second.setPoints(1);
+
+        when(loyaltyPointsJdbcRepository.insertLedgerEntries(anyList())).thenAnswer(invocation -> {
+            List<LoyaltyPointsLedger> entries = invocation.getArgument(0);
+            return entries.stream().map(LoyaltyPointsLedger::getId).collect(Collectors.toSet());
+        });
+        when(loyaltyPointsRepository.findAllById(any())).thenReturn(List.of());
+
+        List<AddPointsBatchItemResultDTO> results = service.addPointsBatch(List.of(first, second));
+
+        assertThat(results).extracting(AddPointsBatchItemResultDTO::getStatus).containsExactly(
+                AddPointsBatchItemResultDTO.STATUS_APPLIED,
+                AddPointsBatchItemResultDTO.STATUS_REJECTED);
+        verify(loyaltyPointsJdbcRepository).creditAll(Map.of(customerId, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void addPointsBatch_existingBalanceNearIntRange_isRejectedNotOverflowed() {
+        AddPointsRequestDto request = addPointsRequest("trx-1");
+        request.setPoints(11);
+        when(loyaltyPointsRepository.findAllById(any())).thenReturn(List.of(
+                LoyaltyPoints.builder().customerId(customerId).points(Integer.MAX_VALUE - 10).build()));
+
+        List<AddPointsBatchItemResultDTO> results = service.addPointsBatch(List.of(request));
+
+        assertThat(results).singleElement()
+                .extracting(AddPointsBatchItemResultDTO::getStatus)
+                .isEqualTo(AddPointsBatchItemResultDTO.STATUS_REJECTED);
+        verify(loyaltyPointsJdbcRepository, never()).insertLedgerEntries(anyList());
+        verify(loyaltyPointsJdbcRepository, never()).creditAll(any());
+    }
+
+    @Test
+    void addPointsBatch_tooLarge_throws() {
+        List<AddPointsRequestDto> batch = new ArrayList<>();
+        for (int i = 0; i <= LoyaltyServiceImpl.MAX_BATCH_SIZE; i++) {
+            batch.add(addPointsRequest("trx-" + i));
+        }
+
+        assertThatThrownBy(() -> service.addPointsBatch(batch))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(loyaltyPointsJdbcRepository);
+    }
+
+    @Test
+    void getDashboard_usesJoinedFetchAndSingleCountQuery() {
+        PurchasedCouponResponseDTO purchased = PurchasedCouponResponseDTO.builder()
+                .code("SUMMER-ABCDEF-1")
+                .couponId(coupon.getId())
+                .couponName(coupon.getName())
+                .build();
+        PurchasedCouponCountsView counts = mock(PurchasedCouponCountsView.class);
+        when(counts.getTotal()).thenReturn(3L);
+        when(counts.getActive()).thenReturn(2L);
+        when(counts.getRedeemed()).thenReturn(1L);
+
+        when(loyaltyPointsRepository.findByCustomerId(customerId)).thenReturn(Optional.empty());
+        when(purchasedCouponRepository.findDetailsByCustomerId(customerId)).thenReturn(List.of(purchased));
+        when(couponCatalog.getCoupons()).thenReturn(List.of(CouponResponseDTO.builder().id(coupon.getId()).build()));
+        when(purchasedCouponRepository.countsByCustomerId(customerId)).thenReturn(counts);
+
+        LoyaltyDashboardResponseDTO dashboard = service.getDashboard(customerId);
+
+        assertThat(dashboard.getPurchasedCoupons()).containsExactly(purchased);
+        assertThat(dashboard.getTotalPurchasedCoupons()).isEqualTo(3);
+        assertThat(dashboard.getActiveCoupons()).isEqualTo(2);
+        assertThat(dashboard.getRedeemedCoupons()).isEqualTo(1);
+        assertThat(dashboard.getAvailableCouponCount()).isEqualTo(1);
+        verify(purchasedCouponRepository, never()).countByCustomerId(any());
+    }
+
+    private AddPointsRequestDto addPointsRequest(String reference) {
+        AddPointsRequestDto request = new AddPointsRequestDto();
+        request.setCustomerId(customerId);
+        request.setPoints(50);
+        request.setReference(reference);
+        return request;
+    }
+
+    private PurchaseCouponRequestDTO request() {
+        PurchaseCouponRequestDTO request = new PurchaseCouponRequestDTO();
+        request.setCustomerId(customerId);
+        request.setCouponId(coupon.getId());
+        return request;
+    }
+}
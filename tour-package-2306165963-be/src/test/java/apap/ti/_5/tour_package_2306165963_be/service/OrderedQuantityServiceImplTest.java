@@ -39,6 +39,12 @@ class OrderedQuantityServiceImplTest {
     @Mock
     PackageRepository packageRepository;
 
+    @Mock
+    RevenueRollupService revenueRollupService;
+
+    @Mock
+    PackageVendorService packageVendorService;
+
     @InjectMocks
     OrderedQuantityServiceImpl service;
 
@@ -134,7 +140,12 @@ class OrderedQuantityServiceImplTest {
         when(packageRepository.findById("pkg-1")).thenReturn(Optional.of(pkg));
         when(activityRepository.findById("act-1")).thenReturn(Optional.of(activity));
         when(orderedQuantityRepository.findByPlanIdAndActivityId(plan.getId(), "act-1")).thenReturn(List.of());
-        when(orderedQuantityRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        // Id di-generate oleh JPA saat persist
+        when(orderedQuantityRepository.save(argThat(oq -> oq.getId() == null))).thenAnswer(inv -> {
+            OrderedQuantity persisted = inv.getArgument(0);
+            persisted.setId(UUID.randomUUID());
+            return persisted;
+        });
 
         OrderedQuantity rq = new OrderedQuantity();
         rq.setActivityId("act-1");
@@ -152,6 +163,7 @@ class OrderedQuantityServiceImplTest {
         // Package quota is 10. Ordered quota is 2. So Unfulfilled.
         assertThat(plan.getStatus()).isEqualTo("Unfulfilled");
         verify(planRepository).save(any(Plan.class));
+        verify(packageVendorService).orderedQuantityAdded("pkg-1", activity.getVendorId());
     }
 
     @Test
@@ -246,11 +258,67 @@ class OrderedQuantityServiceImplTest {
 
         assertThat(result).isTrue();
         verify(orderedQuantityRepository).deleteById(existing.getId());
+        verify(packageVendorService).orderedQuantitiesRemoved("pkg-1", List.of(existing));
         // Plan status back to Unfulfilled
         assertThat(plan.getStatus()).isEqualTo("Unfulfilled");
         verify(planRepository).save(any(Plan.class));
     }
 
+    @Test
+    void createOrderedQuantity_withLoadedPlanAndPackage_doesNotReloadAndSumsInMemory() {
+        OrderedQuantity other = TestDataFactory.oq(UUID.randomUUID(), plan.getId(), "act-2");
+        plan.setEndDate(activity.getEndDate());
+        when(activityRepository.findById("act-1")).thenReturn(Optional.of(activity));
+        when(orderedQuantityRepository.findByPlanIdAndActivityId(plan.getId(), "act-1")).thenReturn(List.of());
+        when(orderedQuantityRepository.findByPlanId(plan.getId())).thenReturn(List.of(other));
+        when(orderedQuantityRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        OrderedQuantity rq = new OrderedQuantity();
+        rq.setActivityId("act-1");
+        rq.setOrderedQuota(8);
+
+        service.createOrderedQuantity(plan, pkg, rq);
+
+        // 2 + 8 = package quota 10
+        assertThat(plan.getStatus()).isEqualTo("Fulfilled");
+        assertThat(plan.getPrice()).isEqualTo(other.getTotalPrice() + activity.getPrice() * 8);
+        verify(planRepository, never()).findById(any(UUID.class));
+        verify(packageRepository, never()).findById(anyString());
+        verify(orderedQuantityRepository, times(1)).findByPlanId(plan.getId());
+        verify(orderedQuantityRepository, never()).sumTotalPriceByPlanId(any(UUID.class));
+    }
+
+    @Test
+    void updateOrderedQuantity_withLoadedEntities_replacesCurrentInTotals() {
+        OrderedQuantity existing = TestDataFactory.oq(UUID.randomUUID(), plan.getId(), "act-1");
+        OrderedQuantity other = TestDataFactory.oq(UUID.randomUUID(), plan.getId(), "act-2");
+        when(orderedQuantityRepository.findByPlanId(plan.getId())).thenReturn(List.of(existing, other));
+        when(orderedQuantityRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        service.updateOrderedQuantity(existing, plan, pkg, 5);
+
+        assertThat(plan.getStatus()).isEqualTo("Unfulfilled");
+        assertThat(plan.getPrice()).isEqualTo(existing.getPrice() * 5 + other.getTotalPrice());
+        verify(orderedQuantityRepository, never()).findById(any(UUID.class));
+        verify(planRepository, never()).findById(any(UUID.class));
+        verify(packageRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void deleteOrderedQuantity_withLoadedEntities_recalculatesFromRemaining() {
+        OrderedQuantity existing = TestDataFactory.oq(UUID.randomUUID(), plan.getId(), "act-1");
+        OrderedQuantity other = TestDataFactory.oq(UUID.randomUUID(), plan.getId(), "act-2");
+        when(orderedQuantityRepository.findByPlanId(plan.getId())).thenReturn(List.of(existing, other));
+
+        assertThat(service.deleteOrderedQuantity(existing, plan, pkg)).isTrue();
+
+        assertThat(plan.getPrice()).isEqualTo(other.getTotalPrice());
+        verify(orderedQuantityRepository).deleteById(existing.getId());
+        verify(packageVendorService).orderedQuantitiesRemoved("pkg-1", List.of(existing));
+        verify(planRepository, never()).findById(any(UUID.class));
+        verify(orderedQuantityRepository, never()).sumTotalPriceByPlanId(any(UUID.class));
+    }
+
     @Test
     void calculateTotalPriceForPlan_nullReturnsZero() {
         when(orderedQuantityRepository.sumTotalPriceByPlanId(any(UUID.class))).thenReturn(null);
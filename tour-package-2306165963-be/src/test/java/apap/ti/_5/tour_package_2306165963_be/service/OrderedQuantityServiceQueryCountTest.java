@@ -0,0 +1,195 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.util.TestDataFactory;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+// SQL per write ordered quantity, dari sisi REST controller: controller me-load OQ/plan/package untuk RBAC,
+// lalu service dipanggil dengan entity itu (overload) atau dengan id (path lama, persistence context terpisah
+// seperti tanpa open-in-view). Rollup revenue & vendor counter pakai native upsert Postgres, jadi di-mock.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Migration ditulis untuk Postgres; di H2 schema dibuat dari entity
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(OrderedQuantityServiceImpl.class)
+class OrderedQuantityServiceQueryCountTest {
+
+    @Autowired
+    TestEntityManager em;
+
+    @Autowired
+    OrderedQuantityService orderedQuantityService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    RevenueRollupService revenueRollupService;
+
+    @MockitoBean
+    PackageVendorService packageVendorService;
+
+    Statistics statistics;
+    Package pkg;
+    Plan plan;
+    Activity activity;
+    OrderedQuantity existing;
+
+    @BeforeEach
+    void setup() {
+        pkg = TestDataFactory.pkg("pkg-1");
+        em.persist(pkg);
+        plan = TestDataFactory.plan(null, pkg.getId());
+        em.persist(plan);
+
+        activity = activity("act-new");
+        em.persist(activity);
+        Activity booked = activity("act-booked");
+        em.persist(booked);
+        existing = TestDataFactory.oq(null, plan.getId(), booked.getId());
+        existing.setStartDate(booked.getStartDate());
+        existing.setEndDate(booked.getEndDate());
+        em.persist(existing);
+
+        em.flush();
+        em.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void createOrderedQuantity_preloadedEntities_issueFewerStatementsThanIdPath() {
+        long preloaded = statements(() -> {
+            Plan loadedPlan = em.find(Plan.class, plan.getId());
+            Package loadedPkg = em.find(Package.class, pkg.getId());
+            orderedQuantityService.createOrderedQuantity(loadedPlan, loadedPkg, newOrderedQuantity());
+        });
+        rollback();
+
+        long idBased = statements(() -> {
+            em.find(Plan.class, plan.getId());
+            em.find(Package.class, pkg.getId());
+            em.clear();
+            orderedQuantityService.createOrderedQuantity(plan.getId().toString(), newOrderedQuantity());
+        });
+
+        // RBAC (plan, package), activity, cek duplikat, OQ plan, insert OQ, update plan
+        assertThat(preloaded).isEqualTo(7);
+        assertThat(idBased).isEqualTo(preloaded + 2);
+    }
+
+    @Test
+    void updateOrderedQuantity_preloadedEntities_issueFewerStatementsThanIdPath() {
+        long preloaded = statements(() -> {
+            OrderedQuantity oq = em.find(OrderedQuantity.class, existing.getId());
+            Plan loadedPlan = em.find(Plan.class, oq.getPlanId());
+            Package loadedPkg = em.find(Package.class, loadedPlan.getPackageId());
+            orderedQuantityService.updateOrderedQuantity(oq, loadedPlan, loadedPkg, 3);
+        });
+        rollback();
+
+        long idBased = statements(() -> {
+            OrderedQuantity oq = em.find(OrderedQuantity.class, existing.getId());
+            Plan loadedPlan = em.find(Plan.class, oq.getPlanId());
+            em.find(Package.class, loadedPlan.getPackageId());
+            em.clear();
+            orderedQuantityService.updateOrderedQuantity(existing.getId().toString(), 3);
+        });
+
+        // RBAC (OQ, plan, package), OQ plan, update OQ, update plan
+        assertThat(preloaded).isEqualTo(6);
+        assertThat(idBased).isEqualTo(preloaded + 3);
+    }
+
+    @Test
+    void deleteOrderedQuantity_preloadedEntities_issueFewerStatementsThanIdPath() {
+        long preloaded = statements(() -> {
+            OrderedQuantity oq = em.find(OrderedQuantity.class, existing.getId());
+            Plan loadedPlan = em.find(Plan.class, oq.getPlanId());
+            Package loadedPkg = em.find(Package.class, loadedPlan.getPackageId());
+            orderedQuantityService.deleteOrderedQuantity(oq, loadedPlan, loadedPkg);
+        });
+        rollback();
+
+        long idBased = statements(() -> {
+            OrderedQuantity oq = em.find(OrderedQuantity.class, existing.getId());
+            Plan loadedPlan = em.find(Plan.class, oq.getPlanId());
+            em.find(Package.class, loadedPlan.getPackageId());
+            em.clear();
+            orderedQuantityService.deleteOrderedQuantity(existing.getId().toString());
+        });
+
+        // RBAC (OQ, plan, package), OQ plan, delete OQ, update plan
+        assertThat(preloaded).isEqualTo(6);
+        assertThat(idBased).isEqualTo(preloaded + 3);
+    }
+
+    // Helper methods
+    private long statements(Runnable request) {
+        statistics.clear();
+        request.run();
+        em.flush();
+        long count = statistics.getPrepareStatementCount();
+        em.clear();
+        return count;
+    }
+
+    // Kembalikan data ke kondisi setup supaya path kedua mengukur operasi yang sama
+    private void rollback() {
+        em.getEntityManager().createQuery("DELETE FROM OrderedQuantity o WHERE o.id <> :id")
+                .setParameter("id", existing.getId())
+                .executeUpdate();
+        OrderedQuantity oq = em.find(OrderedQuantity.class, existing.getId());
+        if (oq == null) {
+            em.persist(restored());
+        } else {
+            oq.setOrderedQuota(existing.getOrderedQuota());
+        }
+        // Status & price plan juga, kalau tidak path kedua tidak perlu UPDATE plan
+        Plan loadedPlan = em.find(Plan.class, plan.getId());
+        loadedPlan.setStatus(plan.getStatus());
+        loadedPlan.setPrice(plan.getPrice());
+        em.flush();
+        em.clear();
+    }
+
+    private OrderedQuantity restored() {
+        OrderedQuantity copy = TestDataFactory.oq(null, plan.getId(), existing.getActivityId());
+        copy.setStartDate(existing.getStartDate());
+        copy.setEndDate(existing.getEndDate());
+        existing = copy;
+        return copy;
+    }
+
+    private Activity activity(String id) {
+        Activity activity = TestDataFactory.activity(id);
+        activity.setStartDate(plan.getStartDate().plusHours(1));
+        activity.setEndDate(plan.getEndDate().minusHours(1));
+        return activity;
+    }
+
+    private OrderedQuantity newOrderedQuantity() {
+        return OrderedQuantity.builder()
+                .activityId(activity.getId())
+                .orderedQuota(1)
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
+import apap.ti._5.tour_package_2306165963_be.dto.packagedto.PackageSummaryView;
+import apap.ti._5.tour_package_2306165963_be.dto.rest.CursorPageDto;
 import apap.ti._5.tour_package_2306165963_be.model.Activity;
 import apap.ti._5.tour_package_2306165963_be.model.Package;
 import apap.ti._5.tour_package_2306165963_be.model.Plan;
@@ -13,9 +15,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,6 +40,18 @@ class PackageServiceImplTest {
     @Mock
     ActivityRepository activityRepository;
 
+    @Mock
+    RevenueRollupService revenueRollupService;
+
+    @Mock
+    CapacityReservationService capacityReservationService;
+
+    @Mock
+    IdSequenceService idSequenceService;
+
+    @Mock
+    PackageVendorService packageVendorService;
+
     @InjectMocks
     PackageServiceImpl service;
 
@@ -48,11 +64,12 @@ class PackageServiceImplTest {
 
     @Test
     void createPackage_success() {
-        when(packageRepository.countByUserId(anyString())).thenReturn(0L);
+        when(idSequenceService.nextValue(eq("package:user-123"), any())).thenReturn(1L);
         when(packageRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
         Package saved = service.createPackage(pkg);
         assertThat(saved.getId()).isNotNull();
-        assertThat(saved.getId()).startsWith("PACK-user-123-");
+        assertThat(saved.getId()).isEqualTo("PACK-user-123-001");
+        verify(packageRepository, never()).countByUserId(anyString());
         assertThat(saved.getStatus()).isEqualTo("Pending");
     }
 
@@ -184,17 +201,14 @@ class PackageServiceImplTest {
         pkg.setStatus("Pending");
         pkg.setPlans(List.of(p1));
 
-        Activity activity = TestDataFactory.activity("act-1");
-        activity.setCapacity(100);
-
         when(packageRepository.findByIdWithPlans("pkg-1")).thenReturn(Optional.of(pkg));
-        when(activityRepository.findById("act-1")).thenReturn(Optional.of(activity));
 
         service.processPackage("pkg-1");
 
         assertThat(pkg.getStatus()).isEqualTo("Processed");
-        assertThat(activity.getCapacity()).isEqualTo(98); // 100 - 2
-        verify(activityRepository, times(1)).save(any(Activity.class));
+        // Capacity dikurangi lewat reservation (activity di-lock FOR UPDATE), bukan read-modify-write tanpa lock
+        verify(capacityReservationService, times(1)).reservePackage(pkg);
+        verify(activityRepository, never()).save(any(Activity.class));
         verify(packageRepository, times(1)).save(any(Package.class));
     }
 
@@ -215,4 +229,125 @@ class PackageServiceImplTest {
         when(packageRepository.findByIdWithPlans("pkg-1")).thenReturn(Optional.of(pkg));
         assertThat(service.getPackageWithPlans("pkg-1")).isPresent();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPackagesPage_firstPage_returnsNextCursor() {
+        Package second = TestDataFactory.pkg("pkg-2");
+        Package third = TestDataFactory.pkg("pkg-3");
+        when(packageRepository.findFirstPage(PageRequest.of(0, 3))).thenReturn(List.of(pkg, second, third));
+
+        CursorPageDto<Package> page = service.getPackagesPage(null, 2);
+
+        assertThat(page.getItems()).extracting(Package::getId).containsExactly("pkg-1", "pkg-2");
+        assertThat(page.getNext()).isNotNull();
+        PackageServiceImpl.PackageCursor cursor = PackageServiceImpl.decodeCursor(page.getNext());
+        assertThat(cursor.id()).isEqualTo("pkg-2");
+        assertThat(cursor.startDate()).isEqualTo(second.getStartDate());
+    }
+
+    @Test
+    void getPackagesPageByStatus_lastPage_hasNoNext() {
+        String cursor = PackageServiceImpl.encodeCursor(pkg);
+        when(packageRepository.findPageByStatusAfter(eq("Pending"), eq(pkg.getStartDate()), eq("pkg-1"), any()))
+                .thenReturn(List.of(TestDataFactory.pkg("pkg-2")));
+
+        CursorPageDto<Package> page = service.getPackagesPageByStatus("Pending", cursor, 10);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    void getPackagesPage_acrossUndatedPackage_continuesById() {
+        Package undated = TestDataFactory.pkg("pkg-2");
+        undated.setStartDate(null);
+        Package lastUndated = TestDataFactory.pkg("pkg-3");
+        lastUndated.setStartDate(null);
+        when(packageRepository.findFirstPage(PageRequest.of(0, 3))).thenReturn(List.of(pkg, undated, lastUndated));
+        when(packageRepository.findUndatedPageAfter("pkg-2", PageRequest.of(0, 3))).thenReturn(List.of(lastUndated));
+
+        CursorPageDto<Package> first = service.getPackagesPage(null, 2);
+        CursorPageDto<Package> second = service.getPackagesPage(first.getNext(), 2);
+
+        assertThat(PackageServiceImpl.decodeCursor(first.getNext()).startDate()).isNull();
+        assertThat(second.getItems()).extracting(Package::getId).containsExactly("pkg-3");
+        assertThat(second.getNext()).isNull();
+        verify(packageRepository, never()).findPageAfter(any(), any(), any());
+    }
+
+    @Test
+    void getPackagesPageByUserId_sizeIsCapped() {
+        when(packageRepository.findFirstPageByUserId("user-123", PageRequest.of(0, 101))).thenReturn(List.of(pkg));
+        assertThat(service.getPackagesPageByUserId("user-123", null, 5000).getItems()).hasSize(1);
+    }
+
+    @Test
+    void getPackagesPage_invalidCursor_throws() {
+        assertThatThrownBy(() -> service.getPackagesPage("bm90LWEtY3Vyc29y", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getPackageDetail_vendorOfPackage_allowed() {
+        when(packageRepository.findWithPlanTreeById("pkg-1")).thenReturn(Optional.of(pkg));
+        when(packageVendorService.isVendorOfPackage("pkg-1", "vendor-1")).thenReturn(true);
+
+        assertThat(service.getPackageDetail("pkg-1", "vendor-1", "TourPackageVendor")).isSameAs(pkg);
+        verify(activityRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getPackageDetail_otherVendor_throws() {
+        when(packageRepository.findWithPlanTreeById("pkg-1")).thenReturn(Optional.of(pkg));
+        when(packageVendorService.isVendorOfPackage("pkg-1", "vendor-2")).thenReturn(false);
+
+        assertThatThrownBy(() -> service.getPackageDetail("pkg-1", "vendor-2", "TourPackageVendor"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("don't have access");
+    }
+
+    @Test
+    void getAllPackageSummaries_usesProjection() {
+        PackageSummaryView summary = mock(PackageSummaryView.class);
+        when(packageRepository.findAllSummaries()).thenReturn(List.of(summary));
+
+        assertThat(service.getAllPackageSummaries()).containsExactly(summary);
+        verify(packageRepository, never()).findAll();
+    }
+
+    @Test
+    void getPackageSummariesPageByUserId_defaultSize_isBounded() {
+        PackageSummaryView first = mock(PackageSummaryView.class);
+        PackageSummaryView last = mock(PackageSummaryView.class);
+        when(last.getId()).thenReturn("pkg-20");
+        when(last.getStartDate()).thenReturn(pkg.getStartDate());
+        List<PackageSummaryView> rows = new ArrayList<>(Collections.nCopies(
+                PackageServiceImpl.DEFAULT_PAGE_SIZE - 1, first));
+        rows.add(last);
+        rows.add(first);
+        when(packageRepository.findFirstSummaryPageByUserId("user-123",
+                PageRequest.of(0, PackageServiceImpl.DEFAULT_PAGE_SIZE + 1))).thenReturn(rows);
+
+        CursorPageDto<PackageSummaryView> page = service.getPackageSummariesPageByUserId("user-123", null, null);
+
+        assertThat(page.getItems()).hasSize(PackageServiceImpl.DEFAULT_PAGE_SIZE);
+        assertThat(PackageServiceImpl.decodeCursor(page.getNext()).id()).isEqualTo("pkg-20");
+    }
+
+    @Test
+    void processPackage_notEnoughCapacity_throws() {
+        Plan p1 = TestDataFactory.plan(UUID.randomUUID(), "pkg-1");
+        p1.setStatus("Fulfilled");
+        p1.setOrderedQuantities(List.of(TestDataFactory.oq(UUID.randomUUID(), p1.getId(), "act-1")));
+        pkg.setPlans(List.of(p1));
+
+        when(packageRepository.findByIdWithPlans("pkg-1")).thenReturn(Optional.of(pkg));
+        when(capacityReservationService.reservePackage(pkg))
+                .thenThrow(new IllegalStateException("Not enough capacity for activity: Hotel Jakarta"));
+
+        assertThatThrownBy(() -> service.processPackage("pkg-1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Not enough capacity");
+        verify(packageRepository, never()).save(any(Package.class));
+    }
+}
@@ -0,0 +1,78 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.PackageVendorRepository;
+import apap.ti._5.tour_package_2306165963_be.util.TestDataFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PackageVendorServiceImplTest {
+
+    @Mock
+    PackageVendorRepository packageVendorRepository;
+
+    @Mock
+    ActivityRepository activityRepository;
+
+    @InjectMocks
+    PackageVendorServiceImpl service;
+
+    @Test
+    void orderedQuantityAdded_incrementsCounter() {
+        service.orderedQuantityAdded("pkg-1", "vendor-1");
+        verify(packageVendorRepository).increment("pkg-1", "vendor-1", 1);
+    }
+
+    @Test
+    void orderedQuantityAdded_activityWithoutVendor_isIgnored() {
+        service.orderedQuantityAdded("pkg-1", null);
+        verifyNoInteractions(packageVendorRepository);
+    }
+
+    @Test
+    void orderedQuantitiesRemoved_decrementsPerVendorInOneLookup() {
+        UUID planId = UUID.randomUUID();
+        OrderedQuantity first = TestDataFactory.oq(UUID.randomUUID(), planId, "act-1");
+        OrderedQuantity second = TestDataFactory.oq(UUID.randomUUID(), planId, "act-2");
+        OrderedQuantity noVendor = TestDataFactory.oq(UUID.randomUUID(), planId, "act-3");
+        Activity act1 = TestDataFactory.activity("act-1");
+        act1.setVendorId("vendor-1");
+        Activity act2 = TestDataFactory.activity("act-2");
+        act2.setVendorId("vendor-1");
+        Activity act3 = TestDataFactory.activity("act-3");
+        when(activityRepository.findAllById(any())).thenReturn(List.of(act1, act2, act3));
+
+        service.orderedQuantitiesRemoved("pkg-1", List.of(first, second, noVendor));
+
+        verify(activityRepository, times(1)).findAllById(any());
+        verify(packageVendorRepository).decrement("pkg-1", "vendor-1", 2);
+        verify(packageVendorRepository).deleteIfUnreferenced("pkg-1", "vendor-1");
+        verifyNoMoreInteractions(packageVendorRepository);
+    }
+
+    @Test
+    void orderedQuantitiesRemoved_empty_doesNothing() {
+        service.orderedQuantitiesRemoved("pkg-1", List.of());
+        verifyNoInteractions(activityRepository, packageVendorRepository);
+    }
+
+    @Test
+    void isVendorOfPackage_usesExistsLookup() {
+        when(packageVendorRepository.existsByPackageIdAndVendorId("pkg-1", "vendor-1")).thenReturn(true);
+        assertThat(service.isVendorOfPackage("pkg-1", "vendor-1")).isTrue();
+        assertThat(service.isVendorOfPackage("pkg-1", null)).isFalse();
+    }
+}
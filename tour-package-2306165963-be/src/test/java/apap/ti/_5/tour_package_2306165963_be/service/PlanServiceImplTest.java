@@ -1,5 +1,6 @@
 package apap.ti._5.tour_package_2306165963_be.service;
 
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
 import apap.ti._5.tour_package_2306165963_be.model.Package;
 import apap.ti._5.tour_package_2306165963_be.model.Plan;
 import apap.ti._5.tour_package_2306165963_be.repository.OrderedQuantityRepository;
@@ -34,6 +35,12 @@ class PlanServiceImplTest {
     @Mock
     OrderedQuantityRepository orderedQuantityRepository;
 
+    @Mock
+    RevenueRollupService revenueRollupService;
+
+    @Mock
+    PackageVendorService packageVendorService;
+
     @InjectMocks
     PlanServiceImpl service;
 
@@ -84,7 +91,12 @@ class PlanServiceImplTest {
     @Test
     void createPlan_success() {
         when(packageRepository.findById("pkg-1")).thenReturn(Optional.of(pkg));
-        when(planRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        // Id di-generate oleh JPA saat persist
+        when(planRepository.save(argThat(p -> p.getId() == null))).thenAnswer(inv -> {
+            Plan persisted = inv.getArgument(0);
+            persisted.setId(UUID.randomUUID());
+            return persisted;
+        });
 
         Plan saved = service.createPlan("pkg-1", plan);
 
@@ -175,12 +187,43 @@ class PlanServiceImplTest {
         // Need to mock package repository for status check
         when(packageRepository.findById("pkg-1")).thenReturn(Optional.of(pkg));
 
+        OrderedQuantity oq = TestDataFactory.oq(UUID.randomUUID(), plan.getId(), "act-1");
+        when(orderedQuantityRepository.findByPlanId(plan.getId())).thenReturn(List.of(oq));
+
         boolean result = service.deletePlan(plan.getId().toString());
         assertThat(result).isTrue();
+        verify(packageVendorService).orderedQuantitiesRemoved("pkg-1", List.of(oq));
         verify(orderedQuantityRepository).deleteByPlanId(plan.getId());
         verify(planRepository).deleteById(plan.getId());
     }
 
+    @Test
+    void deletePlan_withLoadedEntities_skipsLookups() {
+        OrderedQuantity oq = TestDataFactory.oq(UUID.randomUUID(), plan.getId(), "act-1");
+        when(orderedQuantityRepository.findByPlanId(plan.getId())).thenReturn(List.of(oq));
+
+        assertThat(service.deletePlan(plan, pkg)).isTrue();
+
+        verify(planRepository, never()).findById(any(UUID.class));
+        verify(packageRepository, never()).findById(anyString());
+        verify(orderedQuantityRepository).deleteByPlanId(plan.getId());
+        verify(planRepository).deleteById(plan.getId());
+    }
+
+    @Test
+    void updatePlan_withLoadedEntities_updatesExistingWithoutLookups() {
+        Plan changes = TestDataFactory.plan(plan.getId(), "pkg-1");
+        changes.setEndLocation("Bandung");
+        when(planRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        Plan updated = service.updatePlan(plan, pkg, changes);
+
+        assertThat(updated).isSameAs(plan);
+        assertThat(updated.getEndLocation()).isEqualTo("Bandung");
+        verify(planRepository, never()).findById(any(UUID.class));
+        verify(packageRepository, never()).findById(anyString());
+    }
+
     @Test
     void processPlan_notFound_throws() {
         when(planRepository.findByIdWithOrderedQuantities(any(UUID.class))).thenReturn(Optional.empty());
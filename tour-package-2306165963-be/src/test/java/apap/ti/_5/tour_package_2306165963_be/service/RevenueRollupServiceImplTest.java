@@ -0,0 +1,161 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.model.Activity;
+import apap.ti._5.tour_package_2306165963_be.model.OrderedQuantity;
+import apap.ti._5.tour_package_2306165963_be.model.Package;
+import apap.ti._5.tour_package_2306165963_be.model.Plan;
+import apap.ti._5.tour_package_2306165963_be.model.PlanRevenueContribution;
+import apap.ti._5.tour_package_2306165963_be.model.RevenueRollup;
+import apap.ti._5.tour_package_2306165963_be.repository.ActivityRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.OrderedQuantityRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.PackageRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.PlanRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.PlanRevenueContributionRepository;
+import apap.ti._5.tour_package_2306165963_be.repository.RevenueRollupRepository;
+import apap.ti._5.tour_package_2306165963_be.util.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevenueRollupServiceImplTest {
+
+    @Mock
+    RevenueRollupRepository revenueRollupRepository;
+
+    @Mock
+    PlanRevenueContributionRepository contributionRepository;
+
+    @Mock
+    PackageRepository packageRepository;
+
+    @Mock
+    PlanRepository planRepository;
+
+    @Mock
+    OrderedQuantityRepository orderedQuantityRepository;
+
+    @Mock
+    ActivityRepository activityRepository;
+
+    @InjectMocks
+    RevenueRollupServiceImpl service;
+
+    Package pkg;
+    Plan plan;
+    OrderedQuantity oq;
+    Activity activity;
+
+    @BeforeEach
+    void setup() {
+        pkg = TestDataFactory.pkg("pkg-1");
+        plan = TestDataFactory.plan(UUID.randomUUID(), "pkg-1");
+        plan.setStatus("Fulfilled");
+        oq = TestDataFactory.oq(UUID.randomUUID(), plan.getId(), "act-1");
+        activity = TestDataFactory.activity("act-1");
+        activity.setVendorId("vendor-1");
+    }
+
+    @Test
+    void computeContributions_unfulfilledPlan_isEmpty() {
+        plan.setStatus("Unfulfilled");
+        assertThat(RevenueRollupServiceImpl.computeContributions(pkg, plan, List.of(oq), Map.of())).isEmpty();
+    }
+
+    @Test
+    void computeContributions_groupsByPackageMonthTypeAndVendor() {
+        plan.setActivityType("Vehicle");
+        OrderedQuantity other = TestDataFactory.oq(UUID.randomUUID(), plan.getId(), "act-2");
+
+        Map<RevenueRollupServiceImpl.BucketKey, Long> result = RevenueRollupServiceImpl.computeContributions(
+                pkg, plan, List.of(oq, other), Map.of("act-1", "vendor-1"));
+
+        int year = pkg.getStartDate().getYear();
+        int month = pkg.getStartDate().getMonthValue();
+        assertThat(result).containsEntry(
+                new RevenueRollupServiceImpl.BucketKey(year, month, "Vehicle Rental", "vendor-1"), 1500000L);
+        assertThat(result).containsEntry(
+                new RevenueRollupServiceImpl.BucketKey(year, month, "Vehicle Rental",
+                        RevenueRollupServiceImpl.UNKNOWN_VENDOR), 1500000L);
+    }
+
+    @Test
+    void computeContributions_undatedPackage_goesToUndatedBucket() {
+        pkg.setStartDate(null);
+
+        Map<RevenueRollupServiceImpl.BucketKey, Long> result = RevenueRollupServiceImpl.computeContributions(
+                pkg, plan, List.of(oq), Map.of("act-1", "vendor-1"));
+
+        assertThat(result).containsOnlyKeys(new RevenueRollupServiceImpl.BucketKey(
+                RevenueRollupServiceImpl.UNDATED, RevenueRollupServiceImpl.UNDATED, "Accommodation", "vendor-1"));
+    }
+
+    @Test
+    void refreshPlan_newBucket_isUpsertedInOneStatement() {
+        when(packageRepository.findById("pkg-1")).thenReturn(Optional.of(pkg));
+        when(orderedQuantityRepository.findByPlanId(plan.getId())).thenReturn(List.of(oq));
+        when(activityRepository.findAllById(any())).thenReturn(List.of(activity));
+        when(contributionRepository.findByPlanId(plan.getId())).thenReturn(List.of());
+        service.refreshPlan(plan);
+
+        verify(revenueRollupRepository).addToBucket(any(UUID.class), anyInt(), anyInt(), eq("Accommodation"),
+                eq("vendor-1"), eq(1500000L));
+        verify(revenueRollupRepository, never()).save(any(RevenueRollup.class));
+        verify(contributionRepository).saveAll(anyList());
+    }
+
+    @Test
+    void refreshPlan_existingContribution_appliesOnlyDelta() {
+        PlanRevenueContribution previous = PlanRevenueContribution.builder()
+                .planId(plan.getId())
+                .packageId("pkg-1")
+                .revenueYear(pkg.getStartDate().getYear())
+                .revenueMonth(pkg.getStartDate().getMonthValue())
+                .activityType("Accommodation")
+                .vendorId("vendor-1")
+                .revenue(1000000L)
+                .build();
+
+        when(packageRepository.findById("pkg-1")).thenReturn(Optional.of(pkg));
+        when(orderedQuantityRepository.findByPlanId(plan.getId())).thenReturn(List.of(oq));
+        when(activityRepository.findAllById(any())).thenReturn(List.of(activity));
+        when(contributionRepository.findByPlanId(plan.getId())).thenReturn(List.of(previous));
+        service.refreshPlan(plan);
+
+        verify(revenueRollupRepository).addToBucket(any(UUID.class), anyInt(), anyInt(), eq("Accommodation"),
+                eq("vendor-1"), eq(500000L));
+        verify(revenueRollupRepository, never()).save(any(RevenueRollup.class));
+        verify(contributionRepository).deleteAll(List.of(previous));
+    }
+
+    @Test
+    void removePlan_subtractsPreviousContribution() {
+        PlanRevenueContribution previous = PlanRevenueContribution.builder()
+                .planId(plan.getId())
+                .revenueYear(2025)
+                .revenueMonth(1)
+                .activityType("Flight")
+                .vendorId("vendor-1")
+                .revenue(750000L)
+                .build();
+        when(contributionRepository.findByPlanId(plan.getId())).thenReturn(List.of(previous));
+
+        service.removePlan(plan.getId());
+
+        verify(revenueRollupRepository).addToBucket(any(UUID.class), eq(2025), eq(1), eq("Flight"), eq("vendor-1"),
+                eq(-750000L));
+        verify(contributionRepository).deleteAll(List.of(previous));
+    }
+}
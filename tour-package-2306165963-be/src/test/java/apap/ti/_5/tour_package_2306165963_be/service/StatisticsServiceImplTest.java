@@ -0,0 +1,51 @@
+package apap.ti._5.tour_package_2306165963_be.service;
+
+import apap.ti._5.tour_package_2306165963_be.dto.statistics.YearlyRevenueBreakdownDto;
+import apap.ti._5.tour_package_2306165963_be.repository.RevenueRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatisticsServiceImplTest {
+
+    @Mock
+    RevenueRollupRepository revenueRollupRepository;
+
+    @InjectMocks
+    StatisticsServiceImpl service;
+
+    @Test
+    void getYearlyRevenueBreakdown_singleQuery_buildsMatrix() {
+        when(revenueRollupRepository.sumRevenueByMonthAndActivityType(2025)).thenReturn(List.of(
+                new Object[]{1, "Flight", 1000000L},
+                new Object[]{1, "Accommodation", 500000L},
+                new Object[]{3, "Vehicle Rental", 250000L}));
+
+        YearlyRevenueBreakdownDto result = service.getYearlyRevenueBreakdown(2025);
+
+        assertThat(result.getMonthlyRevenue()).hasSize(12);
+        assertThat(result.getMonthlyRevenue().get(1)).isEqualTo(1500000L);
+        assertThat(result.getMonthlyRevenue().get(2)).isZero();
+        assertThat(result.getBreakdown().get(3).get("Vehicle Rental")).isEqualTo(250000L);
+        assertThat(result.getBreakdown().get(3).get("Flight")).isZero();
+        assertThat(result.getRevenueByActivityType().get("Flight")).isEqualTo(1000000L);
+        assertThat(result.getTotalRevenue()).isEqualTo(1750000L);
+        verify(revenueRollupRepository, times(1)).sumRevenueByMonthAndActivityType(2025);
+        verifyNoMoreInteractions(revenueRollupRepository);
+    }
+
+    @Test
+    void getYearlyRevenue_delegatesToBreakdown() {
+        when(revenueRollupRepository.sumRevenueByMonthAndActivityType(2025)).thenReturn(List.of());
+
+        assertThat(service.getYearlyRevenue(2025)).hasSize(12).containsValue(0L);
+    }
+}